@@ -0,0 +1,74 @@
+package study.querydsl.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import study.querydsl.QuerydslApplication;
+
+/**
+ * 벤치마크용 애플리케이션 컨텍스트. 임베디드 H2 메모리 DB 에 회원 데이터를 채운 상태로 시작한다.
+ */
+public final class BenchmarkContext {
+
+    private static final int TEAM_COUNT = 10;
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String name, int memberCount, String... extraArgs) {
+        String[] args = {
+            "--spring.profiles.active=bench",
+            "--spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+            "--spring.datasource.username=sa",
+            "--spring.jpa.hibernate.ddl-auto=create",
+            "--spring.jpa.open-in-view=false",
+            "--decorator.datasource.enabled=false",
+            // 캐시된 count 가 아니라 쿼리 자체를 측정한다
+            "--querydsl.count-cache.maximum-size=0",
+            "--logging.level.root=warn"
+        };
+        // extraArgs 에 같은 키가 있으면 기본값 대신 사용한다
+        List<String> allArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (Arrays.stream(extraArgs).noneMatch(extraArg -> keyOf(extraArg).equals(keyOf(arg)))) {
+                allArgs.add(arg);
+            }
+        }
+        allArgs.addAll(Arrays.asList(extraArgs));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(QuerydslApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(allArgs.toArray(new String[0]));
+
+        seed(context.getBean(JdbcTemplate.class), memberCount);
+        return context;
+    }
+
+    private static String keyOf(String arg) {
+        int separator = arg.indexOf('=');
+        return separator < 0 ? arg : arg.substring(0, separator);
+    }
+
+    /**
+     * JPA 를 거치지 않고 H2 의 SYSTEM_RANGE 로 한 번에 채운다.
+     * 팀은 team1 ~ team10, 나이는 0 ~ 99 로 고르게 분포한다.
+     */
+    static void seed(JdbcTemplate jdbcTemplate, int memberCount) {
+        if (memberCount <= 0) {
+            return;
+        }
+        jdbcTemplate.update("insert into team (team_id, name)"
+            + " select next value for team_seq, 'team' || x from system_range(1, ?)", TEAM_COUNT);
+        jdbcTemplate.update("insert into member (member_id, username, age, team_id)"
+            + " select next value for member_seq, 'member' || r.x, mod(r.x, 100), t.team_id"
+            + " from system_range(1, ?) r join team t on t.name = 'team' || (mod(r.x, ?) + 1)",
+            memberCount, TEAM_COUNT);
+        jdbcTemplate.execute("analyze");
+    }
+}
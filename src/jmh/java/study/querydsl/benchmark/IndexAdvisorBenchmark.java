@@ -0,0 +1,93 @@
+package study.querydsl.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import study.querydsl.config.p6spy.IndexAdvisor;
+import study.querydsl.dto.MemberSearchCond;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberJpaRepository;
+
+/**
+ * 인덱스 추천 전후 비교. 각 검색을 한 번씩 실행해 SQL shape 를 수집하고,
+ * indexed=true 이면 {@link IndexAdvisor} 가 추천한 DDL 을 실행한 뒤 측정한다.
+ * shape 수집을 위해 두 경우 모두 P6Spy 를 켠 상태(test 프로필)로 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IndexAdvisorBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int memberCount;
+
+    @Param({"false", "true"})
+    private boolean indexed;
+
+    private ConfigurableApplicationContext context;
+    private MemberJpaRepository memberJpaRepository;
+
+    private MemberSearchCond usernameCondition;
+    private MemberSearchCond ageRangeCondition;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("index" + memberCount + indexed, memberCount,
+            "--spring.profiles.active=bench,test", "--decorator.datasource.enabled=true");
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+
+        usernameCondition = new MemberSearchCond();
+        usernameCondition.setUsername("member" + memberCount / 2);
+
+        ageRangeCondition = new MemberSearchCond();
+        ageRangeCondition.setTeamName("team3");
+        ageRangeCondition.setAgeGoe(20);
+        ageRangeCondition.setAgeLoe(21);
+
+        searchByUsername();
+        searchByTeamAndAgeRange();
+        if (indexed) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            List<IndexAdvisor.IndexRecommendation> recommendations = context.getBean(IndexAdvisor.class).recommend();
+            if (recommendations.isEmpty()) {
+                throw new IllegalStateException("No index recommended for the benchmark searches");
+            }
+            recommendations.forEach(recommendation -> jdbcTemplate.execute(recommendation.ddl()));
+            jdbcTemplate.execute("analyze");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByUsername() {
+        return memberJpaRepository.search(usernameCondition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByTeamAndAgeRange() {
+        return memberJpaRepository.search(ageRangeCondition);
+    }
+}
@@ -0,0 +1,87 @@
+package study.querydsl.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.persistence.EntityManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberJpaRepository;
+
+/**
+ * 회원 대량 저장 처리 시간. jdbcBatchSize = 1 이 배치 없이 한 건씩 저장하는 기준선이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InsertBenchmark {
+
+    @Param({"100000"})
+    private int memberCount;
+
+    @Param({"1", "50", "100"})
+    private int jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager em;
+    private MemberJpaRepository memberJpaRepository;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("insert" + jdbcBatchSize, 0,
+            "--spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        em = context.getBean(EntityManager.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clean() {
+        jdbcTemplate.update("delete from member");
+        jdbcTemplate.update("delete from team");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void saveAll() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team team = new Team("team");
+            em.persist(team);
+
+            List<Member> members = new ArrayList<>(memberCount);
+            for (int i = 0; i < memberCount; i++) {
+                members.add(new Member("member" + i, i % 100, team));
+            }
+            memberJpaRepository.saveAll(members);
+        });
+    }
+}
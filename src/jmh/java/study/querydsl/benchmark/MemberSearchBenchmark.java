@@ -0,0 +1,101 @@
+package study.querydsl.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import study.querydsl.dto.MemberSearchCond;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.MemberTestRepository;
+
+/**
+ * 같은 검색을 구현한 방식별 비교. 쿼리 생성, 실행, 프로젝션까지 포함한 처리량과 지연 시간 분포를 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MemberSearchBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int memberCount;
+
+    private ConfigurableApplicationContext context;
+    private MemberJpaRepository memberJpaRepository;
+    private MemberRepository memberRepository;
+    private MemberTestRepository memberTestRepository;
+
+    private MemberSearchCond condition;
+    private Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("search" + memberCount, memberCount);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        memberRepository = context.getBean(MemberRepository.class);
+        memberTestRepository = context.getBean(MemberTestRepository.class);
+
+        condition = new MemberSearchCond();
+        condition.setTeamName("team3");
+        condition.setAgeGoe(20);
+        condition.setAgeLoe(29);
+        pageable = PageRequest.of(2, 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByBuilder() {
+        return memberJpaRepository.searchByBuilder(condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> search() {
+        return memberJpaRepository.search(condition);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageSimple() {
+        return memberRepository.searchPageSimple(condition, pageable);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageComplex() {
+        return memberRepository.searchPageComplex(condition, pageable);
+    }
+
+    @Benchmark
+    public Page<Member> applyPagination() {
+        return memberTestRepository.applyPagination(condition, pageable);
+    }
+
+    @Benchmark
+    public Page<Member> applyPagination2() {
+        return memberTestRepository.applyPagination2(condition, pageable);
+    }
+}
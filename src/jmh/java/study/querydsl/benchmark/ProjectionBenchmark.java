@@ -0,0 +1,115 @@
+package study.querydsl.benchmark;
+
+import static study.querydsl.entity.QMember.*;
+import static study.querydsl.entity.QTeam.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Projections;
+
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.repository.support.CompiledProjections;
+
+/**
+ * DB 없이 조회 결과 행을 DTO 로 만드는 비용만 측정한다. 리플렉션 기반 Projections 와 CompiledProjections,
+ * {@code @QueryProjection} 생성자를 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    @Param({"1000", "100000"})
+    private int rowCount;
+
+    private Object[][] memberRows;
+    private Object[][] memberTeamRows;
+
+    private FactoryExpression<MemberDto> reflectiveBean;
+    private FactoryExpression<MemberDto> reflectiveFields;
+    private FactoryExpression<MemberTeamDto> reflectiveConstructor;
+    private FactoryExpression<MemberDto> compiledBean;
+    private FactoryExpression<MemberDto> compiledFields;
+    private FactoryExpression<MemberTeamDto> compiledConstructor;
+    private FactoryExpression<MemberTeamDto> queryProjection;
+
+    @Setup
+    public void setUp() {
+        memberRows = new Object[rowCount][];
+        memberTeamRows = new Object[rowCount][];
+        for (int i = 0; i < rowCount; i++) {
+            memberRows[i] = new Object[] {"member" + i, i % 100};
+            memberTeamRows[i] = new Object[] {(long) i, "member" + i, i % 100, (long) (i % 10), "team" + (i % 10)};
+        }
+
+        reflectiveBean = Projections.bean(MemberDto.class, member.username, member.age);
+        reflectiveFields = Projections.fields(MemberDto.class, member.username, member.age);
+        reflectiveConstructor = Projections.constructor(MemberTeamDto.class,
+            member.id, member.username, member.age, team.id, team.name);
+        compiledBean = CompiledProjections.bean(MemberDto.class, member.username, member.age);
+        compiledFields = CompiledProjections.fields(MemberDto.class, member.username, member.age);
+        compiledConstructor = CompiledProjections.constructor(MemberTeamDto.class,
+            member.id, member.username, member.age, team.id, team.name);
+        queryProjection = new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name);
+    }
+
+    @Benchmark
+    public void reflectiveBean(Blackhole blackhole) {
+        project(reflectiveBean, memberRows, blackhole);
+    }
+
+    @Benchmark
+    public void compiledBean(Blackhole blackhole) {
+        project(compiledBean, memberRows, blackhole);
+    }
+
+    @Benchmark
+    public void reflectiveFields(Blackhole blackhole) {
+        project(reflectiveFields, memberRows, blackhole);
+    }
+
+    @Benchmark
+    public void compiledFields(Blackhole blackhole) {
+        project(compiledFields, memberRows, blackhole);
+    }
+
+    @Benchmark
+    public void reflectiveConstructor(Blackhole blackhole) {
+        project(reflectiveConstructor, memberTeamRows, blackhole);
+    }
+
+    @Benchmark
+    public void compiledConstructor(Blackhole blackhole) {
+        project(compiledConstructor, memberTeamRows, blackhole);
+    }
+
+    @Benchmark
+    public void queryProjection(Blackhole blackhole) {
+        project(queryProjection, memberTeamRows, blackhole);
+    }
+
+    private static void project(FactoryExpression<?> projection, Object[][] rows, Blackhole blackhole) {
+        for (Object[] row : rows) {
+            blackhole.consume(projection.newInstance(row));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package study.querydsl.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import study.querydsl.dto.MemberSearchCond;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberTestRepository;
+
+/**
+ * 엔티티를 반환하는 searchPageByApplyPage 를 읽기-쓰기 트랜잭션과 읽기 전용 트랜잭션에서 비교한다.
+ * 두 벤치마크는 같은 리포지토리 메서드를 호출하고 바깥 트랜잭션의 readOnly 여부만 다르다.
+ * 읽기-쓰기 쪽은 스냅샷 생성, 커밋 시 dirty checking, 쿼리 전 자동 flush 비용을 포함한다.
+ * 메모리 차이는 -prof gc 의 gc.alloc.rate.norm 으로 확인한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReadOnlyQueryBenchmark {
+
+    @Param({"100", "1000"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private MemberTestRepository memberTestRepository;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    private MemberSearchCond condition;
+    private Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // count 쿼리도 두 벤치마크 모두 호출 스레드에서 같은 트랜잭션으로 실행한다
+        context = BenchmarkContext.start("readonly" + pageSize, 100_000,
+            "--querydsl.paging.concurrent-count=false");
+        memberTestRepository = context.getBean(MemberTestRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        condition = new MemberSearchCond();
+        condition.setAgeGoe(20);
+        pageable = PageRequest.of(1, pageSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Member> readWrite() {
+        return readWrite.execute(status -> memberTestRepository.searchPageByApplyPage(condition, pageable));
+    }
+
+    @Benchmark
+    public Page<Member> readOnly() {
+        return readOnly.execute(status -> memberTestRepository.searchPageByApplyPage(condition, pageable));
+    }
+}
@@ -0,0 +1,68 @@
+package study.querydsl.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import study.querydsl.config.p6spy.SqlLogDispatcher;
+import study.querydsl.config.p6spy.SqlLogEntry;
+import study.querydsl.config.p6spy.SqlLogMode;
+import study.querydsl.config.p6spy.SqlLogPolicy;
+
+/**
+ * SQL 한 건을 로그로 넘길 때 요청 스레드가 부담하는 비용. 출력은 Blackhole 로 버린다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SqlLogBenchmark {
+
+    private static final String SQL = "select m1_0.member_id,m1_0.username,m1_0.age,t1_0.team_id,t1_0.name"
+        + " from member m1_0 left join team t1_0 on t1_0.team_id=m1_0.team_id"
+        + " where t1_0.name='teamB' and m1_0.age>=20 and m1_0.age<=40 offset 20 rows fetch first 20 rows only";
+
+    @Param({"SYNC_ALL", "ASYNC_ALL", "SLOW", "SAMPLED"})
+    private String setting;
+
+    private SqlLogDispatcher dispatcher;
+    private SqlLogEntry entry;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        dispatcher = switch (setting) {
+            case "SYNC_ALL" -> new SqlLogDispatcher(SqlLogPolicy.all(), 0, blackhole::consume);
+            case "ASYNC_ALL" -> new SqlLogDispatcher(SqlLogPolicy.all(), 1024, blackhole::consume);
+            case "SLOW" -> new SqlLogDispatcher(new SqlLogPolicy(SqlLogMode.SLOW, 100, 0), 0, blackhole::consume);
+            case "SAMPLED" -> new SqlLogDispatcher(new SqlLogPolicy(SqlLogMode.SAMPLED, 0, 0.01), 0,
+                blackhole::consume);
+            default -> throw new IllegalArgumentException(setting);
+        };
+        entry = new SqlLogEntry(1, "2024-01-01 00:00:00", 3, "statement", SQL, SQL, "jdbc:h2:mem:bench");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        dispatcher.close();
+    }
+
+    @Benchmark
+    public void dispatch() {
+        dispatcher.dispatch(entry);
+    }
+}
@@ -0,0 +1,20 @@
+package study.querydsl.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import study.querydsl.repository.support.CountCache;
+
+@Configuration
+public class CountCacheConfig {
+
+    @Bean
+    public CountCache countCache(
+        @Value("${querydsl.count-cache.ttl:30s}") Duration ttl,
+        @Value("${querydsl.count-cache.maximum-size:1000}") long maximumSize) {
+        return new CountCache(ttl, maximumSize);
+    }
+}
@@ -0,0 +1,24 @@
+package study.querydsl.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import study.querydsl.repository.support.CountQueryExecutor;
+
+@Configuration
+public class CountQueryExecutorConfig {
+
+    @Bean(destroyMethod = "close")
+    public CountQueryExecutor countQueryExecutor(
+        PlatformTransactionManager transactionManager,
+        @Value("${querydsl.paging.concurrent-count:false}") boolean concurrent,
+        @Value("${querydsl.paging.count-threads:8}") int threads,
+        @Value("${querydsl.paging.count-queue-capacity:64}") int queueCapacity,
+        @Value("${querydsl.paging.count-timeout:3s}") Duration timeout) {
+        return new CountQueryExecutor(concurrent, transactionManager, threads, queueCapacity, timeout);
+    }
+}
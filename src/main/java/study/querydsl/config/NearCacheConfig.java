@@ -0,0 +1,21 @@
+package study.querydsl.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import study.querydsl.dto.MemberSnapshot;
+import study.querydsl.repository.support.NearCache;
+
+@Configuration
+public class NearCacheConfig {
+
+    @Bean
+    public NearCache<Long, MemberSnapshot> memberSnapshotCache(
+        @Value("${querydsl.near-cache.member.ttl:10m}") Duration ttl,
+        @Value("${querydsl.near-cache.member.maximum-size:10000}") long maximumSize) {
+        return new NearCache<>("member.snapshot", ttl, maximumSize);
+    }
+}
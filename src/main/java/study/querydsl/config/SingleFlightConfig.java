@@ -0,0 +1,15 @@
+package study.querydsl.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import study.querydsl.repository.support.SingleFlight;
+
+@Configuration
+public class SingleFlightConfig {
+
+    @Bean
+    public SingleFlight memberSearchFlight() {
+        return new SingleFlight("member.search");
+    }
+}
@@ -0,0 +1,15 @@
+package study.querydsl.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import study.querydsl.repository.support.TableVersions;
+
+@Configuration
+public class TableVersionsConfig {
+
+    @Bean
+    public TableVersions tableVersions() {
+        return new TableVersions();
+    }
+}
@@ -0,0 +1,58 @@
+package study.querydsl.config.p6spy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+
+/**
+ * SQL 이 조회하는 테이블로부터 그 테이블의 엔티티를 가리키는 연관관계(예: Member.team, Team.members)를 찾는다.
+ */
+public class EntityAssociationResolver {
+
+    private static final Pattern FROM_TABLE = Pattern.compile("\\bfrom\\s+([\\w.]+)");
+    private static final Pattern CAMEL_CASE = Pattern.compile("([a-z0-9])([A-Z])");
+
+    private final Map<String, List<String>> associationsByTable = new HashMap<>();
+
+    public EntityAssociationResolver(Metamodel metamodel) {
+        for (EntityType<?> owner : metamodel.getEntities()) {
+            for (Attribute<?, ?> attribute : owner.getAttributes()) {
+                if (!attribute.isAssociation()) {
+                    continue;
+                }
+                Class<?> target = attribute instanceof PluralAttribute<?, ?, ?> plural
+                    ? plural.getElementType().getJavaType()
+                    : attribute.getJavaType();
+                associationsByTable
+                    .computeIfAbsent(tableName(metamodel.entity(target)), key -> new ArrayList<>())
+                    .add(owner.getName() + "." + attribute.getName());
+            }
+        }
+    }
+
+    public List<String> resolve(String sqlShape) {
+        Matcher matcher = FROM_TABLE.matcher(sqlShape);
+        if (!matcher.find()) {
+            return List.of();
+        }
+        String table = matcher.group(1);
+        String unqualified = table.substring(table.lastIndexOf('.') + 1);
+        return associationsByTable.getOrDefault(unqualified, List.of());
+    }
+
+    private static String tableName(EntityType<?> entityType) {
+        Table table = entityType.getJavaType().getAnnotation(Table.class);
+        String name = table != null && !table.name().isEmpty() ? table.name() : entityType.getName();
+        return CAMEL_CASE.matcher(name).replaceAll("$1_$2").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,194 @@
+package study.querydsl.config.p6spy;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 실제로 실행된 SQL shape 를 H2 EXPLAIN 으로 확인해 테이블 풀 스캔을 없앨 인덱스를 추천한다.
+ * where 절의 동등 조건 컬럼을 앞에, 범위 조건 컬럼 하나를 뒤에 두는 복합 인덱스를 만들고,
+ * 같은 인덱스를 추천한 shape 의 실행 횟수와 누적 시간으로 우선순위를 정한다.
+ */
+@Slf4j
+public class IndexAdvisor {
+
+    private static final Pattern TABLE_ALIAS =
+        Pattern.compile("\\b(?:from|join)\\s+(\\w+)\\s+(?:as\\s+)?(\\w+)");
+    private static final Pattern WHERE_END =
+        Pattern.compile("\\s(?:group by|order by|having|offset|fetch first|limit)\\s");
+    private static final Pattern PREDICATE =
+        Pattern.compile("(\\w+)\\.(\\w+)\\s*(=|>=|<=|<>|!=|>|<|\\blike\\b|\\bin\\b|\\bbetween\\b|\\bis\\b)");
+    private static final Pattern TABLE_SCAN = Pattern.compile("/\\*\\s*\\w+\\.(\\w+)\\.tableScan");
+    private static final Set<String> KEYWORDS = Set.of("where", "on", "left", "right", "inner", "join", "cross");
+
+    private final SqlStatsRecorder sqlStatsRecorder;
+    private final DataSource dataSource;
+
+    public IndexAdvisor(SqlStatsRecorder sqlStatsRecorder, DataSource dataSource) {
+        this.sqlStatsRecorder = sqlStatsRecorder;
+        this.dataSource = dataSource;
+    }
+
+    public List<IndexRecommendation> recommend() {
+        Map<String, Accumulator> recommendations = new LinkedHashMap<>();
+        for (QueryShapeStats.Snapshot stats : sqlStatsRecorder.snapshot()) {
+            String shape = stats.shape();
+            if (!shape.startsWith("select ")) {
+                continue;
+            }
+            Set<String> scannedTables = scannedTables(shape);
+            if (scannedTables.isEmpty()) {
+                continue;
+            }
+            candidateColumns(shape).forEach((table, columns) -> {
+                if (scannedTables.contains(table) && !columns.isEmpty()) {
+                    recommendations.computeIfAbsent(table + ":" + columns, key -> new Accumulator(table, columns))
+                        .add(stats);
+                }
+            });
+        }
+
+        return recommendations.values().stream()
+            .map(Accumulator::toRecommendation)
+            .sorted(Comparator.comparingDouble(IndexRecommendation::totalMs).reversed())
+            .toList();
+    }
+
+    /**
+     * EXPLAIN 결과에서 인덱스 없이 풀 스캔하는 테이블. 파라미터는 NULL 로 바인딩한다.
+     */
+    Set<String> scannedTables(String shape) {
+        Set<String> tables = new LinkedHashSet<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("explain " + shape)) {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    Matcher matcher = TABLE_SCAN.matcher(resultSet.getString(1));
+                    while (matcher.find()) {
+                        tables.add(matcher.group(1).toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            log.debug("Could not explain query shape: {}", shape, e);
+        }
+        return tables;
+    }
+
+    /**
+     * 테이블별로 where 절에서 사용한 컬럼. 동등 조건 컬럼 뒤에 처음 나온 범위 조건 컬럼 하나를 붙인다.
+     */
+    static Map<String, List<String>> candidateColumns(String shape) {
+        Map<String, String> tablesByAlias = new HashMap<>();
+        Matcher aliases = TABLE_ALIAS.matcher(shape);
+        while (aliases.find()) {
+            if (!KEYWORDS.contains(aliases.group(2))) {
+                tablesByAlias.put(aliases.group(2), aliases.group(1));
+            }
+        }
+
+        int whereStart = shape.indexOf(" where ");
+        if (whereStart < 0) {
+            return Map.of();
+        }
+        String where = shape.substring(whereStart + " where ".length());
+        Matcher whereEnd = WHERE_END.matcher(where);
+        if (whereEnd.find()) {
+            where = where.substring(0, whereEnd.start());
+        }
+
+        Map<String, Set<String>> equalities = new LinkedHashMap<>();
+        Map<String, String> ranges = new HashMap<>();
+        Matcher predicates = PREDICATE.matcher(where);
+        while (predicates.find()) {
+            String table = tablesByAlias.get(predicates.group(1));
+            if (table == null) {
+                continue;
+            }
+            String column = predicates.group(2);
+            switch (predicates.group(3)) {
+                case "=", "in", "is" -> equalities.computeIfAbsent(table, key -> new LinkedHashSet<>()).add(column);
+                case ">", ">=", "<", "<=", "between", "like" -> ranges.putIfAbsent(table, column);
+                default -> {
+                    // <>, != 는 인덱스로 범위를 좁히지 못한다
+                }
+            }
+        }
+
+        Map<String, List<String>> columns = new LinkedHashMap<>();
+        Set<String> tables = new LinkedHashSet<>(equalities.keySet());
+        tables.addAll(ranges.keySet());
+        for (String table : tables) {
+            List<String> indexColumns = new ArrayList<>(equalities.getOrDefault(table, Set.of()));
+            String range = ranges.get(table);
+            if (range != null && !indexColumns.contains(range)) {
+                indexColumns.add(range);
+            }
+            columns.put(table, indexColumns);
+        }
+        return columns;
+    }
+
+    private static class Accumulator {
+
+        private final String table;
+        private final List<String> columns;
+        private final List<String> shapes = new ArrayList<>();
+        private long executions;
+        private double totalMs;
+
+        Accumulator(String table, List<String> columns) {
+            this.table = table;
+            this.columns = columns;
+        }
+
+        void add(QueryShapeStats.Snapshot stats) {
+            shapes.add(stats.shape());
+            executions += stats.count();
+            totalMs += stats.meanMs() * stats.count();
+        }
+
+        IndexRecommendation toRecommendation() {
+            String name = "idx_" + table + "_" + String.join("_", columns);
+            String columnList = String.join(", ", columns);
+            return new IndexRecommendation(
+                table,
+                columns,
+                "create index " + name + " on " + table + " (" + columnList + ")",
+                "@Index(name = \"" + name + "\", columnList = \"" + columnList + "\")",
+                executions,
+                totalMs,
+                shapes);
+        }
+    }
+
+    /**
+     * @param ddl        바로 실행할 수 있는 인덱스 생성 DDL
+     * @param annotation 엔티티의 {@code @Table(indexes = ...)} 에 추가할 값
+     * @param executions 이 인덱스를 사용할 shape 들의 실행 횟수 합
+     * @param totalMs    이 인덱스를 사용할 shape 들의 누적 실행 시간
+     */
+    public record IndexRecommendation(String table, List<String> columns, String ddl, String annotation,
+                                      long executions, double totalMs, List<String> shapes) {
+    }
+}
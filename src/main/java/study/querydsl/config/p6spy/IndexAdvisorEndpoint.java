@@ -0,0 +1,23 @@
+package study.querydsl.config.p6spy;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * /actuator/indexadvisor : 수집된 SQL shape 중 풀 스캔하는 쿼리에 대한 인덱스 추천
+ */
+@RequiredArgsConstructor
+@Endpoint(id = "indexadvisor")
+public class IndexAdvisorEndpoint {
+
+    private final IndexAdvisor indexAdvisor;
+
+    @ReadOperation
+    public List<IndexAdvisor.IndexRecommendation> recommendations() {
+        return indexAdvisor.recommend();
+    }
+}
@@ -0,0 +1,29 @@
+package study.querydsl.config.p6spy;
+
+import java.io.IOException;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class NPlusOneDetectionFilter extends OncePerRequestFilter {
+
+    private final NPlusOneDetector nPlusOneDetector;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        nPlusOneDetector.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            nPlusOneDetector.end();
+        }
+    }
+}
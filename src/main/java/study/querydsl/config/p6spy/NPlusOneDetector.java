@@ -0,0 +1,91 @@
+package study.querydsl.config.p6spy;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 하나의 요청 안에서 같은 shape 의 select 가 임계값 이상 반복되면 N+1 문제로 보고 알린다.
+ * 추적은 {@link #begin()} 과 {@link #end()} 사이에 같은 스레드에서 실행된 SQL 에만 적용된다.
+ */
+@Slf4j
+public class NPlusOneDetector {
+
+    private static final String APPLICATION_PACKAGE = "study.querydsl.";
+    private static final String CONFIG_PACKAGE = "study.querydsl.config.";
+
+    private static final ThreadLocal<Map<String, Integer>> executions = new ThreadLocal<>();
+
+    private final int threshold;
+    private final boolean failOnDetection;
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private volatile EntityAssociationResolver associationResolver;
+
+    public NPlusOneDetector(int threshold, boolean failOnDetection,
+        ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.threshold = threshold;
+        this.failOnDetection = failOnDetection;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void begin() {
+        executions.set(new HashMap<>());
+    }
+
+    public void end() {
+        executions.remove();
+    }
+
+    public void onStatement(String sql) {
+        Map<String, Integer> counts = executions.get();
+        if (counts == null) {
+            return;
+        }
+        String shape = SqlShapes.normalize(sql);
+        if (!shape.startsWith("select")) {
+            return;
+        }
+        if (counts.merge(shape, 1, Integer::sum) == threshold) {
+            report(shape);
+        }
+    }
+
+    private void report(String shape) {
+        List<String> associations = associationResolver().resolve(shape);
+        String callSite = callSite().orElse("unknown");
+        String message = String.format(
+            "N+1 query suspected: same query executed %d times in one request. association=%s, callSite=%s, sql=%s",
+            threshold, associations.isEmpty() ? "unknown" : String.join(", ", associations), callSite, shape);
+
+        if (failOnDetection) {
+            throw new NPlusOneQueryException(message);
+        }
+        log.warn(message);
+    }
+
+    private EntityAssociationResolver associationResolver() {
+        EntityAssociationResolver resolver = associationResolver;
+        if (resolver == null) {
+            resolver = new EntityAssociationResolver(entityManagerFactory.getObject().getMetamodel());
+            associationResolver = resolver;
+        }
+        return resolver;
+    }
+
+    private static Optional<String> callSite() {
+        return StackWalker.getInstance().walk(frames -> frames
+            .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE))
+            .filter(frame -> !frame.getClassName().startsWith(CONFIG_PACKAGE))
+            .filter(frame -> !frame.getClassName().contains("$HibernateProxy"))
+            .filter(frame -> !frame.getClassName().contains("$$"))
+            .findFirst()
+            .map(StackWalker.StackFrame::toString));
+    }
+}
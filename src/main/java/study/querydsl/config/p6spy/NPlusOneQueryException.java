@@ -0,0 +1,8 @@
+package study.querydsl.config.p6spy;
+
+public class NPlusOneQueryException extends RuntimeException {
+
+    public NPlusOneQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,66 @@
+package study.querydsl.config.p6spy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.p6spy.engine.logging.Category;
+import com.p6spy.engine.spy.appender.P6Logger;
+
+/**
+ * P6Spy 가 클래스 이름으로 생성하는 appender. 실제 처리는 스프링 설정으로 등록된 {@link SqlLogDispatcher} 에 위임한다.
+ */
+public class P6SpyAppender implements P6Logger {
+
+    private static final Logger log = LoggerFactory.getLogger("p6spy");
+    private static final SqlLogDispatcher DEFAULT_DISPATCHER = new SqlLogDispatcher(SqlLogPolicy.all(), 0, log::info);
+
+    private static volatile SqlLogDispatcher dispatcher = DEFAULT_DISPATCHER;
+
+    public static synchronized void install(SqlLogDispatcher sqlLogDispatcher) {
+        dispatcher = sqlLogDispatcher != null ? sqlLogDispatcher : DEFAULT_DISPATCHER;
+    }
+
+    /**
+     * sqlLogDispatcher 가 아직 설치되어 있을 때만 기본 dispatcher 로 되돌린다.
+     * 먼저 닫힌 컨텍스트가 나중에 시작된 컨텍스트의 dispatcher 를 지우지 않도록 한다.
+     */
+    public static synchronized void uninstall(SqlLogDispatcher sqlLogDispatcher) {
+        if (dispatcher == sqlLogDispatcher) {
+            install(null);
+        }
+    }
+
+    static SqlLogDispatcher installed() {
+        return dispatcher;
+    }
+
+    @Override
+    public void logSQL(int connectionId, String now, long elapsed, Category category, String prepared, String sql,
+        String url) {
+        dispatcher.dispatch(new SqlLogEntry(connectionId, now, elapsed, category.getName(), prepared, sql, url));
+    }
+
+    @Override
+    public void logException(Exception e) {
+        log.info("", e);
+    }
+
+    @Override
+    public void logText(String text) {
+        log.info(text);
+    }
+
+    @Override
+    public boolean isCategoryEnabled(Category category) {
+        if (Category.ERROR.equals(category)) {
+            return log.isErrorEnabled();
+        }
+        if (Category.WARN.equals(category)) {
+            return log.isWarnEnabled();
+        }
+        if (Category.DEBUG.equals(category)) {
+            return log.isDebugEnabled();
+        }
+        return log.isInfoEnabled();
+    }
+}
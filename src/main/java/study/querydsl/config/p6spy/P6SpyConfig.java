@@ -1,20 +1,80 @@
 package study.querydsl.config.p6spy;
 
+import javax.sql.DataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 
+import com.github.gavlyukovskiy.boot.jdbc.decorator.DecoratedDataSource;
+
 @Profile({"default", "test", "local"})
 @Configuration
 public class P6SpyConfig {
 
     @Bean
-    public P6SpyEventListener p6SpyCustomEventListener() {
-        return new P6SpyEventListener();
+    public P6SpyEventListener p6SpyCustomEventListener(SqlStatsRecorder sqlStatsRecorder,
+        NPlusOneDetector nPlusOneDetector) {
+        return new P6SpyEventListener(sqlStatsRecorder, nPlusOneDetector);
+    }
+
+    @Bean
+    public SqlStatsRecorder sqlStatsRecorder(@Value("${sql-stats.max-shapes:500}") int maxShapes) {
+        return new SqlStatsRecorder(maxShapes);
     }
 
     @Bean
-    public P6SpyFormatter p6SpyCustomFormatter() {
-        return new P6SpyFormatter();
+    public SqlStatsEndpoint sqlStatsEndpoint(SqlStatsRecorder sqlStatsRecorder) {
+        return new SqlStatsEndpoint(sqlStatsRecorder);
+    }
+
+    /**
+     * EXPLAIN 이 SQL 로그와 SqlStatsRecorder 의 shape 로 남지 않도록 P6Spy 로 감싸기 전의 DataSource 를 사용한다.
+     */
+    @Bean
+    public IndexAdvisor indexAdvisor(SqlStatsRecorder sqlStatsRecorder, DataSource dataSource) {
+        DataSource realDataSource = dataSource instanceof DecoratedDataSource decorated
+            ? decorated.getRealDataSource()
+            : dataSource;
+        return new IndexAdvisor(sqlStatsRecorder, realDataSource);
+    }
+
+    @Bean
+    public IndexAdvisorEndpoint indexAdvisorEndpoint(IndexAdvisor indexAdvisor) {
+        return new IndexAdvisorEndpoint(indexAdvisor);
+    }
+
+    @Bean
+    public NPlusOneDetector nPlusOneDetector(
+        @Value("${n-plus-one.threshold:10}") int threshold,
+        @Value("${n-plus-one.fail-on-detection:false}") boolean failOnDetection,
+        ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        return new NPlusOneDetector(threshold, failOnDetection, entityManagerFactory);
+    }
+
+    @Bean
+    public NPlusOneDetectionFilter nPlusOneDetectionFilter(NPlusOneDetector nPlusOneDetector) {
+        return new NPlusOneDetectionFilter(nPlusOneDetector);
+    }
+
+    @Bean(destroyMethod = "close")
+    public SqlLogDispatcher sqlLogDispatcher(
+        @Value("${sql-log.mode:ALL}") SqlLogMode mode,
+        @Value("${sql-log.slow-threshold-ms:100}") long slowThresholdMs,
+        @Value("${sql-log.sample-rate:0.01}") double sampleRate,
+        @Value("${sql-log.async:false}") boolean async,
+        @Value("${sql-log.buffer-size:1024}") int bufferSize) {
+
+        SqlLogDispatcher dispatcher = new SqlLogDispatcher(
+            new SqlLogPolicy(mode, slowThresholdMs, sampleRate),
+            async ? bufferSize : 0,
+            LoggerFactory.getLogger("p6spy")::info);
+        P6SpyAppender.install(dispatcher);
+        return dispatcher;
     }
 }
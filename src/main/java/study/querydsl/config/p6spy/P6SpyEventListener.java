@@ -1,15 +1,69 @@
 package study.querydsl.config.p6spy;
 
 import java.sql.SQLException;
+import java.time.Duration;
 
-import com.p6spy.engine.common.ConnectionInformation;
-import com.p6spy.engine.event.JdbcEventListener;
-import com.p6spy.engine.spy.P6SpyOptions;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.p6spy.engine.common.PreparedStatementInformation;
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
 
-public class P6SpyEventListener extends JdbcEventListener {
+public class P6SpyEventListener extends SimpleJdbcEventListener {
+
+    private static final int MAX_OPEN_RESULT_SETS = 10_000;
+    private static final Duration RESULT_SET_IDLE_TIMEOUT = Duration.ofMinutes(1);
+
+    private final SqlStatsRecorder sqlStatsRecorder;
+    private final NPlusOneDetector nPlusOneDetector;
+    /**
+     * close 되지 않은 ResultSet 이 쌓이지 않도록 GC 된 ResultSet 과 오래 읽지 않은 ResultSet 의 항목만 제거한다.
+     * 읽는 중인 ResultSet 은 next() 마다 접근하므로 만료되지 않는다.
+     */
+    private final Cache<ResultSetInformation, long[]> rowCounts = Caffeine.newBuilder()
+        .weakKeys()
+        .expireAfterAccess(RESULT_SET_IDLE_TIMEOUT)
+        .maximumSize(MAX_OPEN_RESULT_SETS)
+        .build();
+
+    public P6SpyEventListener(SqlStatsRecorder sqlStatsRecorder, NPlusOneDetector nPlusOneDetector) {
+        this.sqlStatsRecorder = sqlStatsRecorder;
+        this.nPlusOneDetector = nPlusOneDetector;
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        sqlStatsRecorder.recordExecution(statementInformation.getSql(), timeElapsedNanos, e != null);
+        nPlusOneDetector.onStatement(statementInformation.getSql());
+    }
+
+    @Override
+    public void onAfterExecuteUpdate(PreparedStatementInformation statementInformation, long timeElapsedNanos,
+        int rowCount, SQLException e) {
+        super.onAfterExecuteUpdate(statementInformation, timeElapsedNanos, rowCount, e);
+        sqlStatsRecorder.recordRows(statementInformation.getSql(), Math.max(rowCount, 0));
+    }
+
+    @Override
+    public void onAfterExecuteUpdate(StatementInformation statementInformation, long timeElapsedNanos, String sql,
+        int rowCount, SQLException e) {
+        super.onAfterExecuteUpdate(statementInformation, timeElapsedNanos, sql, rowCount, e);
+        sqlStatsRecorder.recordRows(sql, Math.max(rowCount, 0));
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos,
+        boolean hasNext, SQLException e) {
+        if (hasNext) {
+            rowCounts.get(resultSetInformation, key -> new long[1])[0]++;
+        }
+    }
 
     @Override
-    public void onAfterGetConnection(ConnectionInformation connectionInformation, SQLException e) {
-        P6SpyOptions.getActiveInstance().setLogMessageFormat(P6SpyFormatter.class.getName());
+    public void onAfterResultSetClose(ResultSetInformation resultSetInformation, SQLException e) {
+        long[] rows = rowCounts.asMap().remove(resultSetInformation);
+        sqlStatsRecorder.recordRows(resultSetInformation.getStatementInformation().getSql(),
+            rows != null ? rows[0] : 0);
     }
 }
@@ -15,50 +15,60 @@ public class P6SpyFormatter implements MessageFormattingStrategy {
     private static final String ALTER = "alter";
     private static final String DROP = "drop";
     private static final String COMMENT = "comment";
+    private static final String SEPARATOR =
+        "----------------------------------------------------------------------------------------------------";
 
     @Override
     public String formatMessage(int connectionId, String now, long elapsed, String category, String prepared, String sql, String url) {
         if (sql.trim().isEmpty()) {
             return formatByCommand(category);
         }
-        return formatBySql(sql, category) + getAdditionalMessages(elapsed);
+        StringBuilder message = new StringBuilder(sql.length() * 2);
+        appendSql(message, sql, category);
+        appendAdditionalMessages(message, elapsed);
+        return message.toString();
     }
 
     private static String formatByCommand(String category) {
-        return NEW_LINE
-            + "Execute Command : "
-            + NEW_LINE
-            + NEW_LINE
-            + TAP
-            + category
-            + NEW_LINE
-            + NEW_LINE
-            + "----------------------------------------------------------------------------------------------------";
+        return new StringBuilder()
+            .append(NEW_LINE)
+            .append("Execute Command : ")
+            .append(NEW_LINE)
+            .append(NEW_LINE)
+            .append(TAP)
+            .append(category)
+            .append(NEW_LINE)
+            .append(NEW_LINE)
+            .append(SEPARATOR)
+            .toString();
     }
 
-    private String formatBySql(String sql, String category) {
+    private void appendSql(StringBuilder message, String sql, String category) {
         if (isStatementDDL(sql, category)) {
-            return NEW_LINE
-                + "Execute DDL : "
-                + NEW_LINE
-                + FormatStyle.DDL
-                .getFormatter()
-                .format(sql);
+            message.append(NEW_LINE)
+                .append("Execute DDL : ")
+                .append(NEW_LINE)
+                .append(FormatStyle.DDL
+                    .getFormatter()
+                    .format(sql));
+            return;
         }
-        return NEW_LINE
-            + "Execute DML : "
-            + NEW_LINE
-            + FormatStyle.BASIC
-            .getFormatter()
-            .format(sql);
+        message.append(NEW_LINE)
+            .append("Execute DML : ")
+            .append(NEW_LINE)
+            .append(FormatStyle.BASIC
+                .getFormatter()
+                .format(sql));
     }
 
-    private String getAdditionalMessages(long elapsed) {
-        return NEW_LINE
-            + NEW_LINE
-            + String.format("Execution Time: %s ms", elapsed)
-            + NEW_LINE
-            + "----------------------------------------------------------------------------------------------------";
+    private void appendAdditionalMessages(StringBuilder message, long elapsed) {
+        message.append(NEW_LINE)
+            .append(NEW_LINE)
+            .append("Execution Time: ")
+            .append(elapsed)
+            .append(" ms")
+            .append(NEW_LINE)
+            .append(SEPARATOR);
     }
 
     private boolean isStatementDDL(String sql, String category) {
@@ -0,0 +1,50 @@
+package study.querydsl.config.p6spy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 쿼리 shape 하나의 누적 통계. 지연 시간은 마이크로초 단위로 기록한다.
+ */
+public class QueryShapeStats {
+
+    private final String shape;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public QueryShapeStats(String shape) {
+        this.shape = shape;
+    }
+
+    public void recordExecution(long elapsedNanos, boolean failed) {
+        latency.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    public void recordRows(long count) {
+        rows.add(count);
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(
+            shape,
+            latency.getCount(),
+            errors.sum(),
+            rows.sum(),
+            toMillis(latency.getMean()),
+            toMillis(latency.getValueAtQuantile(0.5)),
+            toMillis(latency.getValueAtQuantile(0.99)),
+            toMillis(latency.getMax()));
+    }
+
+    private static double toMillis(double micros) {
+        return micros / 1000.0;
+    }
+
+    public record Snapshot(String shape, long count, long errors, long rows, double meanMs, double p50Ms,
+                           double p99Ms, double maxMs) {
+    }
+}
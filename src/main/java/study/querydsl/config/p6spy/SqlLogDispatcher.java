@@ -0,0 +1,105 @@
+package study.querydsl.config.p6spy;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * SQL 로그를 정책에 따라 거르고, 비동기 모드에서는 고정 크기 버퍼를 거쳐 백그라운드 스레드에서 포맷팅해 출력한다.
+ * 버퍼가 가득 차면 요청 스레드를 막지 않고 해당 로그를 버리고, 버린 건수는 최대 1초 간격으로 출력한다.
+ */
+public class SqlLogDispatcher implements AutoCloseable {
+
+    private static final long POLL_TIMEOUT_MS = 100;
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final SqlLogPolicy policy;
+    private final Consumer<String> sink;
+    private final P6SpyFormatter formatter = new P6SpyFormatter();
+    private final BlockingQueue<SqlLogEntry> buffer;
+    private final Thread worker;
+    private final LongAdder dropped = new LongAdder();
+    private long reportedDropped;
+    private long lastReportedAt = System.nanoTime();
+    private volatile boolean running = true;
+
+    /**
+     * @param bufferSize 0 이면 요청 스레드에서 바로 포맷팅한다
+     */
+    public SqlLogDispatcher(SqlLogPolicy policy, int bufferSize, Consumer<String> sink) {
+        this.policy = policy;
+        this.sink = sink;
+        if (bufferSize > 0) {
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+            this.worker = new Thread(this::drain, "sql-log-writer");
+            this.worker.setDaemon(true);
+            this.worker.start();
+        } else {
+            this.buffer = null;
+            this.worker = null;
+        }
+    }
+
+    public void dispatch(SqlLogEntry entry) {
+        if (!policy.shouldLog(entry.elapsed())) {
+            return;
+        }
+        if (buffer == null) {
+            write(entry);
+            return;
+        }
+        if (!buffer.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        // 닫힌 뒤에 들어오는 로그가 멈춘 버퍼에 쌓이지 않도록 먼저 appender 에서 내린다
+        P6SpyAppender.uninstall(this);
+        running = false;
+        if (worker != null) {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private void drain() {
+        while (running || !buffer.isEmpty()) {
+            try {
+                SqlLogEntry entry = buffer.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (entry != null) {
+                    write(entry);
+                }
+                // 부하가 계속되어 poll 이 대기하지 않는 동안에도 주기적으로 출력한다
+                if (entry == null || System.nanoTime() - lastReportedAt >= REPORT_INTERVAL_NANOS) {
+                    reportDropped();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                sink.accept("Failed to format SQL log: " + e);
+            }
+        }
+    }
+
+    private void reportDropped() {
+        lastReportedAt = System.nanoTime();
+        long total = dropped.sum();
+        if (total > reportedDropped) {
+            sink.accept((total - reportedDropped) + " SQL logs dropped because the log buffer was full");
+            reportedDropped = total;
+        }
+    }
+
+    private void write(SqlLogEntry entry) {
+        sink.accept(formatter.formatMessage(entry.connectionId(), entry.now(), entry.elapsed(), entry.category(),
+            entry.prepared(), entry.sql(), entry.url()));
+    }
+}
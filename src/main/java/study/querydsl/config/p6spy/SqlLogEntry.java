@@ -0,0 +1,8 @@
+package study.querydsl.config.p6spy;
+
+/**
+ * 포맷팅 전의 P6Spy 로그 데이터. 요청 스레드에서는 이 값만 만들어 버퍼에 넣는다.
+ */
+public record SqlLogEntry(int connectionId, String now, long elapsed, String category, String prepared, String sql,
+                          String url) {
+}
@@ -0,0 +1,11 @@
+package study.querydsl.config.p6spy;
+
+public enum SqlLogMode {
+
+    /** 모든 SQL 을 남긴다. */
+    ALL,
+    /** 실행 시간이 임계값 이상인 SQL 만 남긴다. */
+    SLOW,
+    /** 일정 비율로 표본 추출한 SQL 만 남긴다. */
+    SAMPLED
+}
@@ -0,0 +1,38 @@
+package study.querydsl.config.p6spy;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.util.Assert;
+
+import lombok.Getter;
+
+/**
+ * 어떤 SQL 을 로그로 남길지 결정한다. 포맷팅 전에 판단해서 남기지 않을 SQL 의 비용을 없앤다.
+ */
+@Getter
+public class SqlLogPolicy {
+
+    private final SqlLogMode mode;
+    private final long slowThresholdMs;
+    private final double sampleRate;
+
+    public SqlLogPolicy(SqlLogMode mode, long slowThresholdMs, double sampleRate) {
+        Assert.notNull(mode, "Mode must not be null!");
+        Assert.isTrue(sampleRate >= 0 && sampleRate <= 1, "Sample rate must be between 0 and 1!");
+        this.mode = mode;
+        this.slowThresholdMs = slowThresholdMs;
+        this.sampleRate = sampleRate;
+    }
+
+    public static SqlLogPolicy all() {
+        return new SqlLogPolicy(SqlLogMode.ALL, 0, 1);
+    }
+
+    public boolean shouldLog(long elapsedMs) {
+        return switch (mode) {
+            case ALL -> true;
+            case SLOW -> elapsedMs >= slowThresholdMs;
+            case SAMPLED -> ThreadLocalRandom.current().nextDouble() < sampleRate;
+        };
+    }
+}
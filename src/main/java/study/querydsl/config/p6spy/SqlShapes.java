@@ -0,0 +1,45 @@
+package study.querydsl.config.p6spy;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * SQL 을 리터럴과 공백 차이를 없앤 형태(shape)로 정규화한다.
+ * 같은 쿼리는 같은 SQL 문자열로 반복 실행되므로 정규화 결과를 캐싱한다.
+ */
+public final class SqlShapes {
+
+    private static final int MAX_CACHED = 2048;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Map<String, String> cache = new ConcurrentHashMap<>();
+
+    private SqlShapes() {
+    }
+
+    public static String normalize(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String shape = cache.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+
+        shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+
+        if (cache.size() < MAX_CACHED) {
+            cache.put(sql, shape);
+        }
+        return shape;
+    }
+}
@@ -0,0 +1,29 @@
+package study.querydsl.config.p6spy;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * /actuator/sqlstats : SQL shape 별 실행 횟수, 처리 행 수, 지연 시간(p50, p99, max)
+ */
+@RequiredArgsConstructor
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+
+    private final SqlStatsRecorder sqlStatsRecorder;
+
+    @ReadOperation
+    public List<QueryShapeStats.Snapshot> sqlStats() {
+        return sqlStatsRecorder.snapshot();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        sqlStatsRecorder.reset();
+    }
+}
@@ -0,0 +1,53 @@
+package study.querydsl.config.p6spy;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 정규화한 SQL shape 별로 실행 시간과 처리 행 수를 모은다.
+ * shape 가 너무 많아지면 이후의 새로운 shape 는 하나로 합쳐서 기록한다.
+ */
+public class SqlStatsRecorder {
+
+    static final String OTHER_SHAPE = "<other>";
+
+    private final int maxShapes;
+    private final Map<String, QueryShapeStats> stats = new ConcurrentHashMap<>();
+
+    public SqlStatsRecorder(int maxShapes) {
+        this.maxShapes = maxShapes;
+    }
+
+    public void recordExecution(String sql, long elapsedNanos, boolean failed) {
+        statsOf(sql).recordExecution(elapsedNanos, failed);
+    }
+
+    public void recordRows(String sql, long rows) {
+        statsOf(sql).recordRows(rows);
+    }
+
+    public List<QueryShapeStats.Snapshot> snapshot() {
+        return stats.values().stream()
+            .map(QueryShapeStats::snapshot)
+            .sorted(Comparator.comparingDouble((QueryShapeStats.Snapshot s) -> s.meanMs() * s.count()).reversed())
+            .toList();
+    }
+
+    public void reset() {
+        stats.clear();
+    }
+
+    private QueryShapeStats statsOf(String sql) {
+        String shape = SqlShapes.normalize(sql);
+        QueryShapeStats shapeStats = stats.get(shape);
+        if (shapeStats != null) {
+            return shapeStats;
+        }
+        if (stats.size() >= maxShapes) {
+            shape = OTHER_SHAPE;
+        }
+        return stats.computeIfAbsent(shape, QueryShapeStats::new);
+    }
+}
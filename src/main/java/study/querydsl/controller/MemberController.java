@@ -1,17 +1,41 @@
 package study.querydsl.controller;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jakarta.servlet.http.HttpServletResponse;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import lombok.RequiredArgsConstructor;
+import study.querydsl.dto.MemberCursor;
 import study.querydsl.dto.MemberSearchCond;
+import study.querydsl.dto.MemberSortKey;
 import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemberTeamRecord;
 import study.querydsl.repository.MemberJpaRepository;
 import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.support.CursorPage;
+import study.querydsl.repository.support.TableVersions;
+import study.querydsl.service.ExportFormat;
+import study.querydsl.service.MemberBatchSearchService;
+import study.querydsl.service.MemberExportService;
 
 @RequiredArgsConstructor
 @RestController
@@ -19,15 +43,99 @@ public class MemberController {
 
     private final MemberJpaRepository memberJpaRepository;
     private final MemberRepository memberRepository;
+    private final MemberExportService memberExportService;
+    private final MemberBatchSearchService memberBatchSearchService;
+    private final TableVersions tableVersions;
 
+    /**
+     * 회원, 팀 테이블 버전과 요청 파라미터로 만든 ETag 가 If-None-Match 와 같으면 조회 없이 304 를 반환한다.
+     */
     @GetMapping("/v1/members")
-    public List<MemberTeamDto> searchMemberV1(MemberSearchCond condition) {
-        return memberJpaRepository.search(condition);
+    public List<MemberTeamRecord> searchMemberV1(MemberSearchCond condition, WebRequest webRequest) {
+        if (webRequest.checkNotModified(searchETag(webRequest))) {
+            return null;
+        }
+        return memberJpaRepository.searchRecords(condition);
+    }
+
+    /**
+     * 여러 위젯의 검색 조건을 한 번에 받아 요청 목록의 index 별 결과를 반환한다.
+     */
+    @PostMapping("/v1/members/batch")
+    public Map<Integer, List<MemberTeamDto>> searchMembersBatch(@RequestBody List<MemberSearchCond> conditions) {
+        try {
+            return memberBatchSearchService.search(conditions);
+        } catch (IllegalArgumentException e) {
+            // 빈 목록, null 조건, 최대 조건 수 초과
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    @GetMapping("/v1/members/export")
+    public void exportMembers(MemberSearchCond condition,
+        @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+        HttpServletResponse response) throws IOException {
+
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+            .filename("members." + format.getExtension())
+            .build()
+            .toString());
+
+        memberExportService.export(condition, format, response.getOutputStream());
     }
 
+    /**
+     * slice=true 이면 전체 카운트 없이 다음 페이지 존재 여부만 반환한다. (무한 스크롤)
+     * estimateTotal=true 이면 큰 결과의 전체 건수를 추정치로 반환하고 totalType 으로 정확도를 알려준다.
+     */
     @GetMapping("/v2/members")
-    public Page<MemberTeamDto> searchMemberV2(MemberSearchCond condition, Pageable pageable) {
+    public Slice<MemberTeamDto> searchMemberV2(MemberSearchCond condition, Pageable pageable,
+        @RequestParam(defaultValue = "false") boolean slice,
+        @RequestParam(defaultValue = "false") boolean estimateTotal, WebRequest webRequest) {
+        if (webRequest.checkNotModified(searchETag(webRequest))) {
+            return null;
+        }
+        if (slice) {
+            return memberRepository.searchSlice(condition, pageable);
+        }
+        if (estimateTotal) {
+            return memberRepository.searchPageEstimated(condition, pageable);
+        }
         return memberRepository.searchPageComplex(condition, pageable);
     }
 
+    @GetMapping("/v3/members")
+    public CursorPage<MemberTeamDto> searchMemberV3(MemberSearchCond condition,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "ID") MemberSortKey sort,
+        @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+        @RequestParam(defaultValue = "20") int size) {
+
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Size must be greater than zero");
+        }
+        // 커서가 있으면 커서에 담긴 정렬 기준을 따른다
+        MemberCursor memberCursor;
+        try {
+            memberCursor = cursor != null ? MemberCursor.decode(cursor) : MemberCursor.first(sort, direction);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        // /v2 의 max-page-size 처럼 최대 건수를 넘으면 최대 건수로 조회한다
+        return memberRepository.searchByCursor(condition, memberCursor, Math.min(size, CursorPage.MAX_SIZE));
+    }
+
+    /**
+     * 검색 결과가 의존하는 테이블 버전을 먼저 읽는다. 조회 중에 변경이 커밋되어도 다음 요청에서 ETag 가 달라진다.
+     */
+    private String searchETag(WebRequest webRequest) {
+        StringBuilder params = new StringBuilder();
+        new TreeMap<>(webRequest.getParameterMap()).forEach((name, values) ->
+            params.append(name).append('=').append(String.join(",", values)).append('&'));
+        String paramsHash = DigestUtils.md5DigestAsHex(params.toString().getBytes(StandardCharsets.UTF_8));
+        return tableVersions.fingerprint(TableVersions.MEMBER, TableVersions.TEAM) + "-" + paramsHash;
+    }
+
 }
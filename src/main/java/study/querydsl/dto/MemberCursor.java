@@ -0,0 +1,82 @@
+package study.querydsl.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.util.Assert;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 커서 기반 조회의 위치 정보. (정렬 키, 마지막 값, 마지막 member_id) 를 담고 클라이언트에는 불투명한 토큰으로 전달한다.
+ * 마지막 값이 null(username 이 없는 회원)이면 마지막 값 토큰을 생략해 문자열 "null" 과 구분한다.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class MemberCursor {
+
+    private static final String DELIMITER = ":";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final MemberSortKey sortKey;
+    private final Sort.Direction direction;
+    private final Long lastId;
+    private final String lastValue;
+
+    private MemberCursor(MemberSortKey sortKey, Sort.Direction direction, Long lastId, String lastValue) {
+        Assert.notNull(sortKey, "Sort key must not be null!");
+        Assert.notNull(direction, "Direction must not be null!");
+        this.sortKey = sortKey;
+        this.direction = direction;
+        this.lastId = lastId;
+        this.lastValue = lastValue;
+    }
+
+    public static MemberCursor first(MemberSortKey sortKey, Sort.Direction direction) {
+        return new MemberCursor(sortKey, direction, null, null);
+    }
+
+    public static MemberCursor after(MemberSortKey sortKey, Sort.Direction direction, MemberTeamDto last) {
+        return new MemberCursor(sortKey, direction, last.getMemberId(), sortKey.valueOf(last));
+    }
+
+    public static MemberCursor decode(String token) {
+        try {
+            String decoded = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+            // 마지막 값(username)에 구분자가 포함될 수 있으므로 마지막 토큰으로 둔다
+            String[] parts = decoded.split(DELIMITER, 4);
+            if (parts.length < 3) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            MemberSortKey sortKey = MemberSortKey.valueOf(parts[0]);
+            Sort.Direction direction = Sort.Direction.valueOf(parts[1]);
+            Long lastId = Long.valueOf(parts[2]);
+            String lastValue = parts.length == 4 ? parts[3] : null;
+            if (lastValue == null && sortKey != MemberSortKey.USERNAME) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            if (sortKey == MemberSortKey.AGE) {
+                Integer.parseInt(lastValue);
+            }
+            return new MemberCursor(sortKey, direction, lastId, lastValue);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    public String encode() {
+        Assert.state(!isFirst(), "First cursor can not be encoded");
+        String raw = sortKey.name() + DELIMITER + direction.name() + DELIMITER + lastId
+            + (lastValue != null ? DELIMITER + lastValue : "");
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isFirst() {
+        return lastId == null;
+    }
+}
@@ -0,0 +1,13 @@
+package study.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+
+/**
+ * {@link MemberDto} 의 불변 버전
+ */
+public record MemberRecord(String username, int age) {
+
+    @QueryProjection
+    public MemberRecord {
+    }
+}
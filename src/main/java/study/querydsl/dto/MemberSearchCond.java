@@ -1,5 +1,7 @@
 package study.querydsl.dto;
 
+import static org.springframework.util.StringUtils.*;
+
 import lombok.Data;
 
 @Data
@@ -11,4 +13,15 @@ public class MemberSearchCond {
     private Integer ageGoe;
     private Integer ageLoe;
 
+    /**
+     * 같은 결과를 내는 조건이 같은 캐시 키가 되도록 공백 문자열을 null 로 맞춘 사본을 반환한다.
+     */
+    public MemberSearchCond normalize() {
+        MemberSearchCond normalized = new MemberSearchCond();
+        normalized.setUsername(hasText(username) ? username : null);
+        normalized.setTeamName(hasText(teamName) ? teamName : null);
+        normalized.setAgeGoe(ageGoe);
+        normalized.setAgeLoe(ageLoe);
+        return normalized;
+    }
 }
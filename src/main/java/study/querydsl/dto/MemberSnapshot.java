@@ -0,0 +1,31 @@
+package study.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 캐시에 보관하는 회원 조회 결과. 여러 스레드가 공유하므로 변경할 수 없다.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class MemberSnapshot {
+
+    private final Long memberId;
+    private final String username;
+    private final int age;
+    private final Long teamId;
+    private final String teamName;
+
+    @QueryProjection
+    public MemberSnapshot(Long memberId, String username, int age, Long teamId, String teamName) {
+        this.memberId = memberId;
+        this.username = username;
+        this.age = age;
+        this.teamId = teamId;
+        this.teamName = teamName;
+    }
+}
@@ -0,0 +1,19 @@
+package study.querydsl.dto;
+
+/**
+ * 커서 기반 조회에서 사용하는 정렬 키. 동일한 키 값은 member_id 로 다시 정렬된다.
+ */
+public enum MemberSortKey {
+
+    ID,
+    USERNAME,
+    AGE;
+
+    public String valueOf(MemberTeamDto dto) {
+        return switch (this) {
+            case ID -> String.valueOf(dto.getMemberId());
+            case USERNAME -> dto.getUsername();
+            case AGE -> String.valueOf(dto.getAge());
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package study.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+
+/**
+ * 회원 검색 결과의 불변 버전. {@link MemberTeamDto} 와 같은 JSON 으로 직렬화되고 setter 호출 없이 생성자 한 번으로 만들어진다.
+ */
+public record MemberTeamRecord(Long memberId, String username, int age, Long teamId, String teamName) {
+
+    @QueryProjection
+    public MemberTeamRecord {
+    }
+}
@@ -0,0 +1,7 @@
+package study.querydsl.dto;
+
+/**
+ * {@link UserDto} 의 불변 버전. Q 타입 없이 Projections.constructor 로 만든다.
+ */
+public record UserRecord(String name, int age) {
+}
@@ -0,0 +1,115 @@
+package study.querydsl.entity;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import study.querydsl.dto.MemberSnapshot;
+import study.querydsl.repository.support.CountCache;
+import study.querydsl.repository.support.NearCache;
+import study.querydsl.repository.support.TableVersions;
+
+/**
+ * Member, Team 변경(등록, 삭제, 팀 변경 포함 수정) 시 검색 결과에 의존하는 캐시를 무효화하고 테이블 버전을 올린다.
+ * 커밋 전 데이터로 계산된 값이 남지 않도록 트랜잭션 종료 시점에 한 번 더 무효화한다.
+ */
+public class EntityChangeListener {
+
+    private static final Object TRANSACTION_KEY = new Object();
+
+    private final ObjectProvider<CountCache> countCache;
+    private final ObjectProvider<NearCache<Long, MemberSnapshot>> memberSnapshotCache;
+    private final ObjectProvider<TableVersions> tableVersions;
+
+    public EntityChangeListener(ObjectProvider<CountCache> countCache,
+        ObjectProvider<NearCache<Long, MemberSnapshot>> memberSnapshotCache,
+        ObjectProvider<TableVersions> tableVersions) {
+        this.countCache = countCache;
+        this.memberSnapshotCache = memberSnapshotCache;
+        this.tableVersions = tableVersions;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        ChangedEntities changed = new ChangedEntities();
+        changed.add(entity);
+        invalidate(changed);
+        invalidateAfterCompletion(entity);
+    }
+
+    private void invalidateAfterCompletion(Object entity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        ChangedEntities changed = (ChangedEntities) TransactionSynchronizationManager.getResource(TRANSACTION_KEY);
+        if (changed == null) {
+            ChangedEntities transactionChanges = new ChangedEntities();
+            TransactionSynchronizationManager.bindResource(TRANSACTION_KEY, transactionChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_KEY);
+                    invalidate(transactionChanges);
+                }
+            });
+            changed = transactionChanges;
+        }
+        changed.add(entity);
+    }
+
+    private void invalidate(ChangedEntities changed) {
+        countCache.ifAvailable(CountCache::invalidateAll);
+        tableVersions.ifAvailable(versions -> {
+            if (changed.memberChanged) {
+                versions.bump(TableVersions.MEMBER);
+            }
+            if (changed.teamChanged) {
+                versions.bump(TableVersions.TEAM);
+            }
+        });
+        memberSnapshotCache.ifAvailable(cache -> {
+            if (changed.all) {
+                cache.invalidateAll();
+            } else {
+                changed.memberIds.forEach(cache::invalidate);
+            }
+        });
+    }
+
+    /**
+     * 트랜잭션에서 변경된 테이블과 회원 id. 팀이 바뀌었거나 변경이 많으면 스냅샷은 전체 무효화로 바꾼다.
+     */
+    private static class ChangedEntities {
+
+        private static final int MAX_MEMBER_IDS = 1000;
+
+        private final Set<Long> memberIds = new HashSet<>();
+        private boolean all;
+        private boolean memberChanged;
+        private boolean teamChanged;
+
+        void add(Object entity) {
+            memberChanged |= entity instanceof Member;
+            teamChanged |= entity instanceof Team;
+            if (all) {
+                return;
+            }
+            // 팀 이름이 바뀌면 소속 회원 스냅샷 모두에 영향을 준다
+            if (!(entity instanceof Member member) || memberIds.size() >= MAX_MEMBER_IDS) {
+                all = true;
+                memberIds.clear();
+                return;
+            }
+            memberIds.add(member.getId());
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package study.querydsl.repository;
+
+import static study.querydsl.entity.QMember.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+
+import lombok.extern.slf4j.Slf4j;
+import study.querydsl.dto.MemberSnapshot;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.support.BulkProgress;
+import study.querydsl.repository.support.CountCache;
+import study.querydsl.repository.support.NearCache;
+import study.querydsl.repository.support.TableVersions;
+
+/**
+ * member_id 구간을 chunkSize 건씩 나누어 청크마다 별도 트랜잭션으로 커밋하는 벌크 수정, 삭제.
+ * 한 문장으로 전체 테이블을 잠그지 않으므로 실행 중에도 다른 트랜잭션이 조회, 수정할 수 있다.
+ * 벌크 연산은 영속성 컨텍스트와 엔티티 리스너를 거치지 않으므로 청크마다 캐시를 무효화하고,
+ * 끝나면 현재 영속성 컨텍스트(OSIV 등)에 남아 있는 회원 엔티티를 준영속 상태로 만든다.
+ */
+@Slf4j
+@Repository
+public class MemberBulkRepository {
+
+    private final EntityManager em;
+    private final EntityManagerFactory emf;
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate chunkTransaction;
+    private final CountCache countCache;
+    private final NearCache<Long, MemberSnapshot> memberSnapshotCache;
+    private final TableVersions tableVersions;
+    private final int chunkSize;
+
+    public MemberBulkRepository(EntityManager em, EntityManagerFactory emf,
+        PlatformTransactionManager transactionManager, CountCache countCache,
+        NearCache<Long, MemberSnapshot> memberSnapshotCache, TableVersions tableVersions,
+        @Value("${member.bulk.chunk-size:1000}") int chunkSize) {
+        Assert.isTrue(chunkSize > 0, "Chunk size must be greater than zero!");
+        this.em = em;
+        this.emf = emf;
+        this.queryFactory = new JPAQueryFactory(em);
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.countCache = countCache;
+        this.memberSnapshotCache = memberSnapshotCache;
+        this.tableVersions = tableVersions;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * condition 을 만족하는 회원을 청크 단위로 수정한다. condition 과 assignments 는 member 만 참조해야 한다.
+     */
+    public BulkProgress update(Predicate condition, Consumer<JPAUpdateClause> assignments,
+        Consumer<BulkProgress> progressListener) {
+        return execute(condition, progressListener, chunk -> {
+            JPAUpdateClause update = queryFactory.update(member).where(chunk);
+            assignments.accept(update);
+            return update.execute();
+        });
+    }
+
+    public BulkProgress delete(Predicate condition, Consumer<BulkProgress> progressListener) {
+        return execute(condition, progressListener, chunk -> queryFactory
+            .delete(member)
+            .where(chunk)
+            .execute());
+    }
+
+    private BulkProgress execute(Predicate condition, Consumer<BulkProgress> progressListener,
+        ChunkStatement statement) {
+        // 청크마다 커밋하므로 호출한 트랜잭션이 잡은 락을 기다리며 멈추지 않도록 트랜잭션 밖에서만 실행한다
+        Assert.state(!TransactionSynchronizationManager.isActualTransactionActive(),
+            "Chunked bulk operations commit per chunk and must not run inside a transaction");
+
+        long startedAt = System.nanoTime();
+        long totalRows = count(condition);
+        long affectedRows = 0;
+        int chunks = 0;
+        Long lastId = 0L;
+        BulkProgress progress = new BulkProgress(0, totalRows, 0, Duration.ZERO);
+
+        try {
+            while (lastId != null) {
+                Long lowerId = lastId;
+                Chunk chunk = chunkTransaction.execute(status -> {
+                    Long upperId = upperIdOfChunk(condition, lowerId);
+                    long affected = statement.execute(member.id.gt(lowerId)
+                        .and(upperId != null ? member.id.loe(upperId) : null)
+                        .and(condition));
+                    return new Chunk(upperId, affected);
+                });
+                lastId = chunk.upperId();
+                affectedRows += chunk.affectedRows();
+                chunks++;
+                invalidateCaches();
+
+                progress = new BulkProgress(affectedRows, totalRows, chunks,
+                    Duration.ofNanos(System.nanoTime() - startedAt));
+                progressListener.accept(progress);
+            }
+        } finally {
+            detachMembers();
+        }
+
+        log.info("Bulk operation finished. rows={}, chunks={}, elapsed={}ms, rows/s={}", affectedRows, chunks,
+            progress.elapsed().toMillis(), String.format("%.1f", progress.rowsPerSecond()));
+        return progress;
+    }
+
+    private long count(Predicate condition) {
+        return chunkTransaction.execute(status -> queryFactory
+            .select(member.count())
+            .from(member)
+            .where(condition)
+            .fetchOne());
+    }
+
+    /**
+     * lowerId 이후로 조건을 만족하는 chunkSize 번째 member_id. 남은 행이 chunkSize 보다 적으면 null 이다.
+     */
+    private Long upperIdOfChunk(Predicate condition, Long lowerId) {
+        return queryFactory
+            .select(member.id)
+            .from(member)
+            .where(member.id.gt(lowerId), condition)
+            .orderBy(member.id.asc())
+            .offset(chunkSize - 1)
+            .limit(1)
+            .fetchFirst();
+    }
+
+    private void invalidateCaches() {
+        countCache.invalidateAll();
+        memberSnapshotCache.invalidateAll();
+        tableVersions.bump(TableVersions.MEMBER);
+    }
+
+    /**
+     * 현재 스레드에 바인딩된 영속성 컨텍스트가 있으면 DB 와 달라졌을 수 있는 회원 엔티티를 준영속 상태로 만든다.
+     */
+    private void detachMembers() {
+        EntityManager bound = EntityManagerFactoryUtils.getTransactionalEntityManager(emf);
+        if (bound == null) {
+            return;
+        }
+        SessionImplementor session = bound.unwrap(SessionImplementor.class);
+        for (Map.Entry<Object, EntityEntry> entry : session.getPersistenceContextInternal()
+            .reentrantSafeEntityEntries()) {
+            if (entry.getKey() instanceof Member) {
+                bound.detach(entry.getKey());
+            }
+        }
+    }
+
+    private record Chunk(Long upperId, long affectedRows) {
+    }
+
+    @FunctionalInterface
+    private interface ChunkStatement {
+
+        long execute(Predicate chunk);
+    }
+}
@@ -0,0 +1,129 @@
+package study.querydsl.repository;
+
+import static org.springframework.util.StringUtils.*;
+import static study.querydsl.entity.QMember.*;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadLocalRandom;
+
+import jakarta.persistence.EntityManager;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+
+import study.querydsl.dto.MemberSearchCond;
+import study.querydsl.repository.support.EstimatedPage.TotalType;
+
+/**
+ * 검색 조건의 전체 건수를 전체 count 없이 구한다.
+ * 조건이 없으면 DB 통계의 테이블 행 수를 사용하고, 그 외에는 countCap + 1 건까지만 DB 에서 세어 상한 이하이면 정확한 값을 사용한다.
+ * 상한을 넘으면 테이블 행 수에 member_id 구간 표본의 선택도를 곱해 추정한다.
+ * 테이블 행 수는 H2 의 INFORMATION_SCHEMA.TABLES.ROW_COUNT_ESTIMATE 에서 읽는다.
+ * 다른 DB 이거나 통계가 없으면 추정하지 않고 상한을 넘었다는 사실만 CAPPED 로 알린다.
+ */
+@Component
+public class MemberCountEstimator {
+
+    private static final String TABLE_ROWS_SQL =
+        "select ROW_COUNT_ESTIMATE from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'MEMBER'";
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+    private final MemberSearchQueries memberSearchQueries;
+    private final long countCap;
+    private final long sampleSize;
+    private final boolean tableStatistics;
+
+    public MemberCountEstimator(EntityManager em, MemberSearchQueries memberSearchQueries,
+        @Value("${querydsl.paging.count-cap:10000}") long countCap,
+        @Value("${querydsl.paging.sample-size:1000}") long sampleSize) {
+        this.em = em;
+        this.queryFactory = new JPAQueryFactory(em);
+        this.memberSearchQueries = memberSearchQueries;
+        this.countCap = countCap;
+        this.sampleSize = sampleSize;
+        this.tableStatistics = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices().getDialect() instanceof H2Dialect;
+    }
+
+    public Total estimate(MemberSearchCond condition) {
+        boolean unfiltered = isUnfiltered(condition);
+        OptionalLong tableRows = unfiltered ? tableRows() : OptionalLong.empty();
+        if (unfiltered && tableRows.isPresent() && tableRows.getAsLong() > countCap) {
+            return new Total(tableRows.getAsLong(), TotalType.ESTIMATED);
+        }
+
+        long capped = memberSearchQueries.countUpTo(condition, countCap + 1);
+        if (capped <= countCap) {
+            return new Total(capped, TotalType.EXACT);
+        }
+
+        if (!unfiltered) {
+            tableRows = tableRows();
+        }
+        if (tableRows.isPresent()) {
+            double selectivity = sampleSelectivity(condition, tableRows.getAsLong());
+            long estimated = Math.round(tableRows.getAsLong() * selectivity);
+            if (estimated > countCap) {
+                return new Total(estimated, TotalType.ESTIMATED);
+            }
+        }
+        // 통계가 없거나 통계, 표본이 실제보다 작게 나오면 상한을 넘었다는 사실만 알린다
+        return new Total(countCap + 1, TotalType.CAPPED);
+    }
+
+    /**
+     * 통계의 member 테이블 행 수. H2 가 아니거나 통계 행이 없으면 비어 있다.
+     * 지원하지 않는 DB 에서 쿼리가 실패해 호출자의 트랜잭션이 rollback-only 가 되지 않도록 실행 전에 dialect 로 확인한다.
+     */
+    private OptionalLong tableRows() {
+        if (!tableStatistics) {
+            return OptionalLong.empty();
+        }
+        List<?> rows = em.createNativeQuery(TABLE_ROWS_SQL).getResultList();
+        if (rows.isEmpty() || !(rows.get(0) instanceof Number number)) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(number.longValue());
+    }
+
+    /**
+     * 임의의 member_id 구간에서 조건을 만족하는 비율. 구간 폭은 평균적으로 sampleSize 행이 들어가도록 정한다.
+     */
+    private double sampleSelectivity(MemberSearchCond condition, long tableRows) {
+        Tuple range = queryFactory
+            .select(member.id.min(), member.id.max())
+            .from(member)
+            .fetchOne();
+        Long minId = range.get(member.id.min());
+        Long maxId = range.get(member.id.max());
+        if (minId == null || tableRows == 0) {
+            return 0;
+        }
+
+        long idSpan = maxId - minId + 1;
+        long width = Math.max(1, idSpan * sampleSize / tableRows);
+        long fromId = minId + ThreadLocalRandom.current().nextLong(Math.max(1, idSpan - width + 1));
+        long toId = fromId + width - 1;
+
+        long sampled = memberSearchQueries.countBetween(new MemberSearchCond(), fromId, toId);
+        if (sampled == 0) {
+            return 0;
+        }
+        return (double) memberSearchQueries.countBetween(condition, fromId, toId) / sampled;
+    }
+
+    private static boolean isUnfiltered(MemberSearchCond condition) {
+        return !hasText(condition.getUsername()) && !hasText(condition.getTeamName())
+            && condition.getAgeGoe() == null && condition.getAgeLoe() == null;
+    }
+
+    public record Total(long value, TotalType type) {
+    }
+}
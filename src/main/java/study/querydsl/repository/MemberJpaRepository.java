@@ -4,11 +4,15 @@ import static org.springframework.util.StringUtils.*;
 import static study.querydsl.entity.QMember.*;
 import static study.querydsl.entity.QTeam.*;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import jakarta.persistence.EntityManager;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import com.querydsl.core.BooleanBuilder;
@@ -16,29 +20,65 @@ import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 
 import study.querydsl.dto.MemberSearchCond;
+import study.querydsl.dto.MemberSnapshot;
 import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemberTeamRecord;
 import study.querydsl.dto.QMemberTeamDto;
 import study.querydsl.entity.Member;
+import study.querydsl.repository.support.SingleFlight;
 
 @Repository
 public class MemberJpaRepository {
 
     private final EntityManager em;
     private final JPAQueryFactory queryFactory;
-
-    public MemberJpaRepository(EntityManager em) {
+    private final MemberSearchQueries memberSearchQueries;
+    private final MemberSnapshotReader memberSnapshotReader;
+    private final SingleFlight memberSearchFlight;
+    private final int batchSize;
+
+    public MemberJpaRepository(EntityManager em, MemberSearchQueries memberSearchQueries,
+        MemberSnapshotReader memberSnapshotReader, SingleFlight memberSearchFlight,
+        @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}") int batchSize) {
         this.em = em;
         this.queryFactory = new JPAQueryFactory(em);
+        this.memberSearchQueries = memberSearchQueries;
+        this.memberSnapshotReader = memberSnapshotReader;
+        this.memberSearchFlight = memberSearchFlight;
+        this.batchSize = batchSize;
     }
 
     public void save(Member member) {
         em.persist(member);
     }
 
+    /**
+     * JDBC 배치 크기 단위로 flush, clear 하며 저장한다. 저장된 회원을 포함해 영속성 컨텍스트의 엔티티는 준영속 상태가 된다.
+     */
+    public void saveAll(Iterable<Member> members) {
+        int count = 0;
+        for (Member member : members) {
+            em.persist(member);
+            if (++count % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
     public Optional<Member> findById(Long id) {
         return Optional.ofNullable(em.find(Member.class, id));
     }
 
+    /**
+     * 엔티티 대신 변경할 수 없는 스냅샷을 반환한다. 쓰기 트랜잭션 밖에서는 near cache 에서 조회한다.
+     */
+    public Optional<MemberSnapshot> findSnapshotById(Long id) {
+        return memberSnapshotReader.findById(id);
+    }
+
     public List<Member> findAll() {
         return em.createQuery("select m from Member m", Member.class)
             .getResultList();
@@ -101,6 +141,42 @@ public class MemberJpaRepository {
     }
 
     public List<MemberTeamDto> search(MemberSearchCond condition) {
+        return memberSearchFlight.execute(MemberSearchKey.of("search", condition),
+            () -> memberSearchQueries.search(condition));
+    }
+
+    /**
+     * search 와 같은 결과를 불변 record 로 바로 만든다. 행마다 setter 를 호출하지 않는다.
+     */
+    public List<MemberTeamRecord> searchRecords(MemberSearchCond condition) {
+        return memberSearchFlight.execute(MemberSearchKey.of("searchRecords", condition),
+            () -> memberSearchQueries.searchRecords(condition));
+    }
+
+    /**
+     * 회원명 조건만 있는 여러 검색을 username in (...) 한 번으로 조회한다.
+     */
+    public List<MemberTeamDto> searchByUsernames(Collection<String> usernames) {
+        return queryFactory
+            .select(new QMemberTeamDto(
+                member.id.as("memberId"),
+                member.username,
+                member.age,
+                team.id.as("teamId"),
+                team.name.as("teamName")
+            ))
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(member.username.in(usernames))
+            .orderBy(member.id.asc())
+            .fetch();
+    }
+
+    /**
+     * 결과를 List 로 모으지 않고 fetchSize 단위로 읽어오는 스트림을 반환한다.
+     * 커넥션을 점유하므로 트랜잭션 안에서 사용하고 반드시 close 해야 한다.
+     */
+    public Stream<MemberTeamDto> searchStream(MemberSearchCond condition, int fetchSize) {
         return queryFactory
             .select(new QMemberTeamDto(
                 member.id.as("memberId"),
@@ -117,7 +193,9 @@ public class MemberJpaRepository {
                 ageGoe(condition.getAgeGoe()),
                 ageLoe(condition.getAgeLoe())
             )
-            .fetch();
+            .orderBy(member.id.asc())
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .stream();
     }
 
     private BooleanExpression usernameEq(String username) {
@@ -1,18 +1,35 @@
 package study.querydsl.repository;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import study.querydsl.dto.MemberCursor;
 import study.querydsl.dto.MemberSearchCond;
+import study.querydsl.dto.MemberSnapshot;
 import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.support.CursorPage;
+import study.querydsl.repository.support.EstimatedPage;
 
 public interface MemberRepositoryCustom {
 
+    Optional<MemberSnapshot> findSnapshotById(Long id);
+
     List<MemberTeamDto> search(MemberSearchCond condition);
 
     Page<MemberTeamDto> searchPageSimple(MemberSearchCond condition, Pageable pageable);
 
     Page<MemberTeamDto> searchPageComplex(MemberSearchCond condition, Pageable pageable);
+
+    /**
+     * 전체 건수를 상한이 있는 count 와 통계 기반 추정치로 구한다. 정확한 값인지는 totalType 으로 알 수 있다.
+     */
+    EstimatedPage<MemberTeamDto> searchPageEstimated(MemberSearchCond condition, Pageable pageable);
+
+    Slice<MemberTeamDto> searchSlice(MemberSearchCond condition, Pageable pageable);
+
+    CursorPage<MemberTeamDto> searchByCursor(MemberSearchCond condition, MemberCursor cursor, int size);
 }
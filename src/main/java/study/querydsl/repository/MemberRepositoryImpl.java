@@ -5,60 +5,74 @@ import static study.querydsl.entity.QMember.*;
 import static study.querydsl.entity.QTeam.*;
 
 import java.util.List;
+import java.util.Optional;
 
 import jakarta.persistence.EntityManager;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.support.QuerydslRepositorySupport;
-import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.util.Assert;
 
-import com.querydsl.core.QueryResults;
+import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 
+import study.querydsl.dto.MemberCursor;
 import study.querydsl.dto.MemberSearchCond;
+import study.querydsl.dto.MemberSnapshot;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.dto.QMemberTeamDto;
 import study.querydsl.entity.Member;
+import study.querydsl.repository.support.CountCache;
+import study.querydsl.repository.support.CountQueries;
+import study.querydsl.repository.support.CountQueryExecutor;
+import study.querydsl.repository.support.CursorPage;
+import study.querydsl.repository.support.EstimatedPage;
+import study.querydsl.repository.support.EstimatedPage.TotalType;
+import study.querydsl.repository.support.SingleFlight;
+import study.querydsl.repository.support.Slices;
 
 public class MemberRepositoryImpl extends QuerydslRepositorySupport implements MemberRepositoryCustom {
 
     private final JPAQueryFactory queryFactory;
-
-    public MemberRepositoryImpl(EntityManager em) {
+    private final MemberSearchQueries memberSearchQueries;
+    private final CountCache countCache;
+    private final CountQueryExecutor countQueryExecutor;
+    private final MemberSnapshotReader memberSnapshotReader;
+    private final MemberCountEstimator memberCountEstimator;
+    private final SingleFlight memberSearchFlight;
+
+    public MemberRepositoryImpl(EntityManager em, MemberSearchQueries memberSearchQueries, CountCache countCache,
+        CountQueryExecutor countQueryExecutor, MemberSnapshotReader memberSnapshotReader,
+        MemberCountEstimator memberCountEstimator, SingleFlight memberSearchFlight) {
         super(Member.class);
         this.queryFactory = new JPAQueryFactory(em);
+        this.memberSearchQueries = memberSearchQueries;
+        this.countCache = countCache;
+        this.countQueryExecutor = countQueryExecutor;
+        this.memberSnapshotReader = memberSnapshotReader;
+        this.memberCountEstimator = memberCountEstimator;
+        this.memberSearchFlight = memberSearchFlight;
     }
 
     @Override
-    public List<MemberTeamDto> search(MemberSearchCond condition) {
+    public Optional<MemberSnapshot> findSnapshotById(Long id) {
+        return memberSnapshotReader.findById(id);
+    }
 
-        return queryFactory
-            .select(new QMemberTeamDto(
-                member.id.as("memberId"),
-                member.username,
-                member.age,
-                team.id.as("teamId"),
-                team.name.as("teamName")
-            ))
-            .from(member)
-            .leftJoin(member.team, team)
-            .where(
-                usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe())
-            )
-            .fetch();
+    @Override
+    public List<MemberTeamDto> search(MemberSearchCond condition) {
+        return memberSearchFlight.execute(MemberSearchKey.of("search", condition),
+            () -> memberSearchQueries.search(condition));
     }
 
     @Override
     public Page<MemberTeamDto> searchPageSimple(MemberSearchCond condition, Pageable pageable) {
-        // paging query
-        QueryResults<MemberTeamDto> result = queryFactory
+        JPAQuery<MemberTeamDto> query = queryFactory
             .select(new QMemberTeamDto(
                 member.id.as("memberId"),
                 member.username,
@@ -73,20 +87,67 @@ public class MemberRepositoryImpl extends QuerydslRepositorySupport implements M
                 teamNameEq(condition.getTeamName()),
                 ageGoe(condition.getAgeGoe()),
                 ageLoe(condition.getAgeLoe())
-            )
+            );
+
+        // count query
+        long count = CountQueries.derive(getEntityManager(), query).getAsLong();
+
+        // paging query
+        List<MemberTeamDto> content = query
             .offset(pageable.getOffset())
             .limit(pageable.getPageSize())
-            .fetchResults();
-
-        List<MemberTeamDto> content = result.getResults();
-        long count = result.getTotal();
+            .fetch();
 
         return new PageImpl<>(content, pageable, count);
     }
 
     @Override
     public Page<MemberTeamDto> searchPageComplex(MemberSearchCond condition, Pageable pageable) {
-        // paging query
+        return memberSearchFlight.execute(MemberSearchKey.of("searchPageComplex", condition, pageable),
+            () -> fetchPageComplex(condition, pageable));
+    }
+
+    private Page<MemberTeamDto> fetchPageComplex(MemberSearchCond condition, Pageable pageable) {
+        MemberSearchKey countCacheKey = MemberSearchKey.of("searchPageComplex", condition);
+
+        return countQueryExecutor.getPage(
+            // paging query
+            () -> memberSearchQueries.search(condition, pageable.getOffset(), pageable.getPageSize()),
+            pageable,
+            // count query
+            () -> countCache.get(countCacheKey, () -> memberSearchQueries.count(condition)));
+    }
+
+    @Override
+    public EstimatedPage<MemberTeamDto> searchPageEstimated(MemberSearchCond condition, Pageable pageable) {
+        List<MemberTeamDto> content = memberSearchQueries.search(condition, pageable.getOffset(),
+            pageable.getPageSize());
+
+        // 마지막 페이지이면 content 만으로 정확한 전체 건수를 알 수 있다
+        if (content.size() < pageable.getPageSize() && (pageable.getOffset() == 0 || !content.isEmpty())) {
+            return new EstimatedPage<>(content, pageable, pageable.getOffset() + content.size(), TotalType.EXACT);
+        }
+
+        MemberCountEstimator.Total total = memberCountEstimator.estimate(condition);
+        return new EstimatedPage<>(content, pageable, total.value(), total.type());
+    }
+
+    @Override
+    public Slice<MemberTeamDto> searchSlice(MemberSearchCond condition, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return Slices.of(memberSearchQueries.search(condition), pageable);
+        }
+        List<MemberTeamDto> content = memberSearchQueries.search(condition, pageable.getOffset(),
+            Slices.limitOf(pageable));
+        return Slices.of(content, pageable);
+    }
+
+    @Override
+    public CursorPage<MemberTeamDto> searchByCursor(MemberSearchCond condition, MemberCursor cursor, int size) {
+        Assert.isTrue(size > 0 && size <= CursorPage.MAX_SIZE,
+            "Size must be between 1 and " + CursorPage.MAX_SIZE + "!");
+
+        // seek query: offset 없이 (정렬 키, member_id) 이후의 행부터 size + 1 건만 읽는다
         List<MemberTeamDto> content = queryFactory
             .select(new QMemberTeamDto(
                 member.id.as("memberId"),
@@ -101,25 +162,22 @@ public class MemberRepositoryImpl extends QuerydslRepositorySupport implements M
                 usernameEq(condition.getUsername()),
                 teamNameEq(condition.getTeamName()),
                 ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe())
+                ageLoe(condition.getAgeLoe()),
+                seek(cursor)
             )
-            .offset(pageable.getOffset())
-            .limit(pageable.getPageSize())
+            .orderBy(cursorOrders(cursor))
+            .limit(size + 1)
             .fetch();
 
-        // count query
-        JPAQuery<Long> countQuery = queryFactory
-            .select(member.count())
-            .from(member)
-            .leftJoin(member.team, team)
-            .where(
-                usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe())
-            );
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = content.subList(0, size);
+        }
+        String nextCursor = hasNext
+            ? MemberCursor.after(cursor.getSortKey(), cursor.getDirection(), content.get(size - 1)).encode()
+            : null;
 
-        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+        return new CursorPage<>(content, size, hasNext, nextCursor);
     }
 
     private BooleanExpression usernameEq(String username) {
@@ -137,4 +195,44 @@ public class MemberRepositoryImpl extends QuerydslRepositorySupport implements M
     private static BooleanExpression ageLoe(Integer ageLoe) {
         return ageLoe != null ? member.age.loe(ageLoe) : null;
     }
+
+    private BooleanExpression seek(MemberCursor cursor) {
+        if (cursor.isFirst()) {
+            return null;
+        }
+        boolean asc = cursor.getDirection().isAscending();
+        BooleanExpression idAfter = asc ? member.id.gt(cursor.getLastId()) : member.id.lt(cursor.getLastId());
+
+        return switch (cursor.getSortKey()) {
+            case ID -> idAfter;
+            case USERNAME -> {
+                // username 이 null 인 회원은 방향과 관계없이 마지막에 온다
+                String lastUsername = cursor.getLastValue();
+                if (lastUsername == null) {
+                    yield member.username.isNull().and(idAfter);
+                }
+                BooleanExpression keyAfter = asc
+                    ? member.username.gt(lastUsername)
+                    : member.username.lt(lastUsername);
+                yield keyAfter.or(member.username.eq(lastUsername).and(idAfter)).or(member.username.isNull());
+            }
+            case AGE -> {
+                Integer lastAge = Integer.valueOf(cursor.getLastValue());
+                BooleanExpression keyAfter = asc ? member.age.gt(lastAge) : member.age.lt(lastAge);
+                yield keyAfter.or(member.age.eq(lastAge).and(idAfter));
+            }
+        };
+    }
+
+    private OrderSpecifier<?>[] cursorOrders(MemberCursor cursor) {
+        boolean asc = cursor.getDirection().isAscending();
+        OrderSpecifier<Long> idOrder = asc ? member.id.asc() : member.id.desc();
+
+        return switch (cursor.getSortKey()) {
+            case ID -> new OrderSpecifier<?>[] {idOrder};
+            case USERNAME -> new OrderSpecifier<?>[] {
+                (asc ? member.username.asc() : member.username.desc()).nullsLast(), idOrder};
+            case AGE -> new OrderSpecifier<?>[] {asc ? member.age.asc() : member.age.desc(), idOrder};
+        };
+    }
 }
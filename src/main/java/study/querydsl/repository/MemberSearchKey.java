@@ -0,0 +1,19 @@
+package study.querydsl.repository;
+
+import org.springframework.data.domain.Pageable;
+
+import study.querydsl.dto.MemberSearchCond;
+
+/**
+ * 동시에 들어온 같은 검색을 합치기 위한 키. 조건은 normalize 된 값을 사용한다.
+ */
+public record MemberSearchKey(String operation, MemberSearchCond condition, Pageable pageable) {
+
+    public static MemberSearchKey of(String operation, MemberSearchCond condition) {
+        return new MemberSearchKey(operation, condition.normalize(), null);
+    }
+
+    public static MemberSearchKey of(String operation, MemberSearchCond condition, Pageable pageable) {
+        return new MemberSearchKey(operation, condition.normalize(), pageable);
+    }
+}
@@ -0,0 +1,230 @@
+package study.querydsl.repository;
+
+import static org.springframework.util.StringUtils.*;
+import static study.querydsl.entity.QMember.*;
+import static study.querydsl.entity.QTeam.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+import jakarta.persistence.EntityManager;
+
+import org.springframework.stereotype.Component;
+
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+
+import study.querydsl.dto.MemberSearchCond;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemberTeamRecord;
+import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.dto.QMemberTeamRecord;
+import study.querydsl.repository.support.CompiledQuery;
+import study.querydsl.repository.support.CountQueries;
+
+/**
+ * 회원 검색 쿼리를 조건 존재 여부(shape)별로 한 번만 만들어 재사용한다.
+ * MemberSearchCond 의 조건 4개로 만들어지는 shape 는 16개뿐이므로 호출마다 쿼리를 생성, 직렬화하지 않고 값만 바인딩한다.
+ */
+@Component
+public class MemberSearchQueries {
+
+    private static final Param<String> USERNAME = new Param<>(String.class, "username");
+    private static final Param<String> TEAM_NAME = new Param<>(String.class, "teamName");
+    private static final Param<Integer> AGE_GOE = new Param<>(Integer.class, "ageGoe");
+    private static final Param<Integer> AGE_LOE = new Param<>(Integer.class, "ageLoe");
+    private static final Param<Long> FROM_ID = new Param<>(Long.class, "fromId");
+    private static final Param<Long> TO_ID = new Param<>(Long.class, "toId");
+    private static final Param<Integer> LIMIT = new Param<>(Integer.class, "limit");
+
+    private static final int HAS_USERNAME = 1;
+    private static final int HAS_TEAM_NAME = 1 << 1;
+    private static final int HAS_AGE_GOE = 1 << 2;
+    private static final int HAS_AGE_LOE = 1 << 3;
+    private static final int SHAPE_COUNT = 1 << 4;
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+    private final AtomicReferenceArray<CompiledQuery<MemberTeamDto>> contentQueries =
+        new AtomicReferenceArray<>(SHAPE_COUNT);
+    private final AtomicReferenceArray<CompiledQuery<MemberTeamRecord>> recordQueries =
+        new AtomicReferenceArray<>(SHAPE_COUNT);
+    private final AtomicReferenceArray<CompiledQuery<Long>> countQueries = new AtomicReferenceArray<>(SHAPE_COUNT);
+    private final AtomicReferenceArray<CompiledQuery<Long>> countUpToQueries =
+        new AtomicReferenceArray<>(SHAPE_COUNT);
+    private final AtomicReferenceArray<CompiledQuery<Long>> rangeCountQueries =
+        new AtomicReferenceArray<>(SHAPE_COUNT);
+
+    public MemberSearchQueries(EntityManager em) {
+        this.em = em;
+        this.queryFactory = new JPAQueryFactory(em);
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCond condition) {
+        int shape = shapeOf(condition);
+        return compiled(contentQueries, shape, this::contentQuery)
+            .fetch(em, params(condition));
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCond condition, long offset, long limit) {
+        int shape = shapeOf(condition);
+        return compiled(contentQueries, shape, this::contentQuery)
+            .fetch(em, params(condition), offset, limit);
+    }
+
+    public List<MemberTeamRecord> searchRecords(MemberSearchCond condition) {
+        int shape = shapeOf(condition);
+        return compiled(recordQueries, shape, this::recordQuery)
+            .fetch(em, params(condition));
+    }
+
+    public long count(MemberSearchCond condition) {
+        int shape = shapeOf(condition);
+        return compiled(countQueries, shape, this::countQuery)
+            .fetchOne(em, params(condition));
+    }
+
+    /**
+     * 조건을 만족하는 행을 limit 건까지만 DB 에서 센다. 전체 count 대신 상한이 있는 count 로 사용한다.
+     */
+    public long countUpTo(MemberSearchCond condition, long limit) {
+        int shape = shapeOf(condition);
+        Map<ParamExpression<?>, Object> params = params(condition);
+        params.put(LIMIT, Math.toIntExact(limit));
+        return cached(countUpToQueries, shape, s -> CountQueries.compileCountUpTo(em, idQuery(s), LIMIT))
+            .fetchOne(em, params);
+    }
+
+    /**
+     * member_id 가 fromId 이상 toId 이하인 구간에서 조건을 만족하는 행 수. 선택도 표본 추출에 사용한다.
+     */
+    public long countBetween(MemberSearchCond condition, long fromId, long toId) {
+        int shape = shapeOf(condition);
+        Map<ParamExpression<?>, Object> params = params(condition);
+        params.put(FROM_ID, fromId);
+        params.put(TO_ID, toId);
+        return compiled(rangeCountQueries, shape, this::rangeCountQuery)
+            .fetchOne(em, params);
+    }
+
+    private <T> CompiledQuery<T> compiled(AtomicReferenceArray<CompiledQuery<T>> cache, int shape,
+        IntFunction<JPAQuery<T>> queryBuilder) {
+
+        return cached(cache, shape, s -> CompiledQuery.compile(em, queryBuilder.apply(s)));
+    }
+
+    private static <T> CompiledQuery<T> cached(AtomicReferenceArray<CompiledQuery<T>> cache, int shape,
+        IntFunction<CompiledQuery<T>> compiler) {
+
+        CompiledQuery<T> compiled = cache.get(shape);
+        if (compiled == null) {
+            // 동시에 처음 호출되면 같은 쿼리가 두 번 만들어질 수 있지만 결과는 같다
+            compiled = compiler.apply(shape);
+            cache.set(shape, compiled);
+        }
+        return compiled;
+    }
+
+    private JPAQuery<MemberTeamDto> contentQuery(int shape) {
+        return queryFactory
+            .select(new QMemberTeamDto(
+                member.id.as("memberId"),
+                member.username,
+                member.age,
+                team.id.as("teamId"),
+                team.name.as("teamName")
+            ))
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(predicates(shape));
+    }
+
+    private JPAQuery<MemberTeamRecord> recordQuery(int shape) {
+        return queryFactory
+            .select(new QMemberTeamRecord(
+                member.id,
+                member.username,
+                member.age,
+                team.id,
+                team.name
+            ))
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(predicates(shape));
+    }
+
+    private JPAQuery<Long> countQuery(int shape) {
+        // teamName 조건이 없는 shape 는 team 조인이 제거된다
+        return CountQueries.optimize(em, queryFactory
+            .select(member.count())
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(predicates(shape)));
+    }
+
+    private JPAQuery<Long> idQuery(int shape) {
+        return CountQueries.optimize(em, queryFactory
+            .select(member.id)
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(predicates(shape)));
+    }
+
+    private JPAQuery<Long> rangeCountQuery(int shape) {
+        return CountQueries.optimize(em, queryFactory
+            .select(member.count())
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(predicates(shape))
+            .where(member.id.between(FROM_ID, TO_ID)));
+    }
+
+    private static BooleanExpression[] predicates(int shape) {
+        return new BooleanExpression[] {
+            (shape & HAS_USERNAME) != 0 ? member.username.eq(USERNAME) : null,
+            (shape & HAS_TEAM_NAME) != 0 ? team.name.eq(TEAM_NAME) : null,
+            (shape & HAS_AGE_GOE) != 0 ? member.age.goe(AGE_GOE) : null,
+            (shape & HAS_AGE_LOE) != 0 ? member.age.loe(AGE_LOE) : null
+        };
+    }
+
+    private static int shapeOf(MemberSearchCond condition) {
+        int shape = 0;
+        if (hasText(condition.getUsername())) {
+            shape |= HAS_USERNAME;
+        }
+        if (hasText(condition.getTeamName())) {
+            shape |= HAS_TEAM_NAME;
+        }
+        if (condition.getAgeGoe() != null) {
+            shape |= HAS_AGE_GOE;
+        }
+        if (condition.getAgeLoe() != null) {
+            shape |= HAS_AGE_LOE;
+        }
+        return shape;
+    }
+
+    private static Map<ParamExpression<?>, Object> params(MemberSearchCond condition) {
+        Map<ParamExpression<?>, Object> params = new HashMap<>(8);
+        if (hasText(condition.getUsername())) {
+            params.put(USERNAME, condition.getUsername());
+        }
+        if (hasText(condition.getTeamName())) {
+            params.put(TEAM_NAME, condition.getTeamName());
+        }
+        if (condition.getAgeGoe() != null) {
+            params.put(AGE_GOE, condition.getAgeGoe());
+        }
+        if (condition.getAgeLoe() != null) {
+            params.put(AGE_LOE, condition.getAgeLoe());
+        }
+        return params;
+    }
+}
@@ -0,0 +1,51 @@
+package study.querydsl.repository;
+
+import static study.querydsl.entity.QMember.*;
+import static study.querydsl.entity.QTeam.*;
+
+import java.util.Optional;
+
+import jakarta.persistence.EntityManager;
+
+import org.springframework.stereotype.Component;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+
+import study.querydsl.dto.MemberSnapshot;
+import study.querydsl.dto.QMemberSnapshot;
+import study.querydsl.repository.support.NearCache;
+
+/**
+ * 회원 단건 조회를 near cache 를 거쳐 수행한다.
+ * 캐시 값은 EntityChangeListener 와 벌크 연산에서 무효화된다.
+ */
+@Component
+public class MemberSnapshotReader {
+
+    private final JPAQueryFactory queryFactory;
+    private final NearCache<Long, MemberSnapshot> memberSnapshotCache;
+
+    public MemberSnapshotReader(EntityManager em, NearCache<Long, MemberSnapshot> memberSnapshotCache) {
+        this.queryFactory = new JPAQueryFactory(em);
+        this.memberSnapshotCache = memberSnapshotCache;
+    }
+
+    public Optional<MemberSnapshot> findById(Long id) {
+        return memberSnapshotCache.get(id, this::load);
+    }
+
+    private Optional<MemberSnapshot> load(Long id) {
+        return Optional.ofNullable(queryFactory
+            .select(new QMemberSnapshot(
+                member.id,
+                member.username,
+                member.age,
+                team.id,
+                team.name
+            ))
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(member.id.eq(id))
+            .fetchOne());
+    }
+}
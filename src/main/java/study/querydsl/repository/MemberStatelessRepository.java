@@ -0,0 +1,138 @@
+package study.querydsl.repository;
+
+import static study.querydsl.entity.QMember.*;
+import static study.querydsl.entity.QTeam.*;
+
+import java.util.function.Consumer;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.HQLTemplates;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAUtil;
+
+import study.querydsl.dto.MemberSnapshot;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.support.CountCache;
+import study.querydsl.repository.support.NearCache;
+import study.querydsl.repository.support.TableVersions;
+
+/**
+ * Hibernate StatelessSession 으로 전체 회원을 훑거나 대량 등록한다.
+ * 1차 캐시와 dirty checking 이 없으므로 처리 건수와 관계없이 메모리 사용량이 일정하다.
+ * 조회한 엔티티는 준영속 상태이고 지연 로딩할 수 없어 팀은 fetch join 으로 함께 조회한다.
+ * 현재 트랜잭션과 별도의 커넥션을 사용하고 엔티티 리스너를 거치지 않으므로 등록 후에는 캐시를 직접 무효화한다.
+ */
+@Repository
+public class MemberStatelessRepository {
+
+    private final SessionFactory sessionFactory;
+    private final CountCache countCache;
+    private final NearCache<Long, MemberSnapshot> memberSnapshotCache;
+    private final TableVersions tableVersions;
+    private final int fetchSize;
+
+    public MemberStatelessRepository(EntityManagerFactory emf, CountCache countCache,
+        NearCache<Long, MemberSnapshot> memberSnapshotCache, TableVersions tableVersions,
+        @Value("${member.stateless.fetch-size:1000}") int fetchSize) {
+        Assert.isTrue(fetchSize > 0, "Fetch size must be greater than zero!");
+        this.sessionFactory = emf.unwrap(SessionFactory.class);
+        this.countCache = countCache;
+        this.memberSnapshotCache = memberSnapshotCache;
+        this.tableVersions = tableVersions;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * condition 을 만족하는 회원을 팀과 함께 member_id 순으로 한 건씩 전달하고 처리한 건수를 반환한다.
+     */
+    public long forEachWithTeam(Predicate condition, Consumer<Member> action) {
+        JPAQuery<Member> query = new JPAQuery<Member>()
+            .select(member)
+            .from(member)
+            .leftJoin(member.team, team).fetchJoin()
+            .where(condition)
+            .orderBy(member.id.asc());
+
+        long count = 0;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                try (ScrollableResults<Member> results = createQuery(session, query.getMetadata())
+                    .setFetchSize(fetchSize)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                    while (results.next()) {
+                        action.accept(results.get());
+                        count++;
+                    }
+                }
+                transaction.commit();
+            } catch (RuntimeException e) {
+                rollback(transaction);
+                throw e;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 한 트랜잭션으로 회원을 등록하고 등록한 건수를 반환한다. 회원의 팀은 이미 저장된 팀이어야 한다.
+     */
+    public long insertAll(Iterable<Member> members) {
+        Assert.state(!TransactionSynchronizationManager.isActualTransactionActive(),
+            "Stateless insert must not be called in a transaction");
+
+        long count = 0;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                for (Member member : members) {
+                    session.insert(member);
+                    count++;
+                }
+                transaction.commit();
+            } catch (RuntimeException e) {
+                rollback(transaction);
+                throw e;
+            }
+        }
+        invalidateCaches();
+        return count;
+    }
+
+    private Query<Member> createQuery(StatelessSession session, QueryMetadata metadata) {
+        JPQLSerializer serializer = new JPQLSerializer(HQLTemplates.DEFAULT);
+        serializer.serialize(metadata, false, null);
+
+        Query<Member> query = session.createQuery(serializer.toString(), Member.class);
+        JPAUtil.setConstants(query, serializer.getConstants(), metadata.getParams());
+        return query;
+    }
+
+    private static void rollback(Transaction transaction) {
+        if (transaction.isActive()) {
+            transaction.rollback();
+        }
+    }
+
+    private void invalidateCaches() {
+        countCache.invalidateAll();
+        memberSnapshotCache.invalidateAll();
+        tableVersions.bump(TableVersions.MEMBER);
+    }
+}
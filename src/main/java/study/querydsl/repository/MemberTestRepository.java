@@ -10,8 +10,10 @@ import jakarta.persistence.EntityManager;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
@@ -19,9 +21,15 @@ import com.querydsl.jpa.impl.JPAQueryFactory;
 
 import study.querydsl.dto.MemberSearchCond;
 import study.querydsl.entity.Member;
+import study.querydsl.repository.support.CountQueries;
 import study.querydsl.repository.support.Querydsl4RepositorySupport;
 
+/**
+ * 엔티티를 반환하는 조회 전용 리포지토리. 읽기 전용 트랜잭션에서 스냅샷과 자동 flush 없이 조회하고,
+ * 호출자의 읽기-쓰기 트랜잭션에 참여하면 일반 조회로 동작한다.
+ */
 @Repository
+@Transactional(readOnly = true)
 public class MemberTestRepository extends Querydsl4RepositorySupport {
 
     private final JPAQueryFactory queryFactory;
@@ -55,11 +63,11 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
         List<Member> content = getQuerydsl().applyPagination(pageable, query)
             .fetch();
 
-        return PageableExecutionUtils.getPage(content, pageable, query::fetchCount);
+        return PageableExecutionUtils.getPage(content, pageable, CountQueries.derive(getEntityManager(), query));
     }
 
     public Page<Member> applyPagination(MemberSearchCond condition, Pageable pageable) {
-        return applyPagination(pageable, contentQuery -> contentQuery
+        return applyPagination(pageable, condition.normalize(), contentQuery -> contentQuery
             .selectFrom(member)
             .leftJoin(member.team, team).fetchJoin()
             .where(
@@ -94,6 +102,19 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
         );
     }
 
+    public Slice<Member> applySlice(MemberSearchCond condition, Pageable pageable) {
+        return applySlice(pageable, query -> query
+            .selectFrom(member)
+            .leftJoin(member.team, team)
+            .where(
+                usernameEq(condition.getUsername()),
+                teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe())
+            )
+        );
+    }
+
     private BooleanExpression usernameEq(String username) {
         return hasText(username) ? member.username.eq(username) : null;
     }
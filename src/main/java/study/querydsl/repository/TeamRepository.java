@@ -0,0 +1,26 @@
+package study.querydsl.repository;
+
+import java.util.List;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import study.querydsl.entity.Team;
+
+public interface TeamRepository extends JpaRepository<Team, Long> {
+
+    String NAME_QUERY_CACHE_REGION = "team-query";
+
+    /**
+     * 팀 이름 조회 결과는 쿼리 캐시에 id 목록으로 저장되고, Team 엔티티는 2차 캐시에서 가져온다.
+     * team 테이블이 변경되면 쿼리 캐시는 자동으로 무효화된다.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = NAME_QUERY_CACHE_REGION)
+    })
+    List<Team> findByName(String name);
+}
@@ -0,0 +1,19 @@
+package study.querydsl.repository.support;
+
+import java.time.Duration;
+
+/**
+ * 청크 단위 벌크 연산의 진행 상황. 마지막 청크 이후의 값이 전체 결과가 된다.
+ *
+ * @param affectedRows 지금까지 변경된 행 수
+ * @param totalRows    시작 시점에 조건을 만족한 행 수
+ * @param chunks       커밋된 청크 수
+ * @param elapsed      시작 후 경과 시간
+ */
+public record BulkProgress(long affectedRows, long totalRows, int chunks, Duration elapsed) {
+
+    public double rowsPerSecond() {
+        long millis = elapsed.toMillis();
+        return millis == 0 ? affectedRows : affectedRows * 1000.0 / millis;
+    }
+}
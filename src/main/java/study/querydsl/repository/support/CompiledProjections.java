@@ -0,0 +1,314 @@
+package study.querydsl.repository.support;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionException;
+import com.querydsl.core.types.FactoryExpressionBase;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Visitor;
+
+/**
+ * {@link com.querydsl.core.types.Projections} 의 bean, fields, constructor 와 같은 방식으로 DTO 를 만든다.
+ * 행마다 리플렉션을 호출하지 않고, DTO 타입과 프로퍼티 구성별로 한 번 만든 LambdaMetafactory 함수와 MethodHandle 을 재사용한다.
+ * 값이 null 인 primitive 프로퍼티와 생성자 인자는 기본값으로 둔다.
+ */
+public final class CompiledProjections {
+
+    /**
+     * DTO 타입별 행 매핑 함수. 매핑 함수가 DTO 클래스에 묶인 람다와 MethodHandle 을 참조하므로
+     * ClassValue 라도 캐시된 DTO 클래스(와 그 클래스 로더)는 언로드되지 않는다(JDK-8136353).
+     * 애플리케이션과 수명이 같은 DTO 클래스에만 사용한다.
+     */
+    private static final ClassValue<ConcurrentMap<Binding, RowMapper>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<Binding, RowMapper> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private CompiledProjections() {
+    }
+
+    /**
+     * setter 로 값을 채운다. 프로퍼티 이름은 경로 이름 또는 alias 를 사용한다.
+     */
+    public static <T> CompiledProjection<T> bean(Class<? extends T> type, Expression<?>... exprs) {
+        List<Object> names = Arrays.stream(exprs).map(CompiledProjections::nameOf).map(Object.class::cast).toList();
+        RowMapper mapper = MAPPERS.get(type).computeIfAbsent(new Binding(Kind.BEAN, names),
+            binding -> beanMapper(type, names, false));
+        return new CompiledProjection<>(type, List.of(exprs), mapper);
+    }
+
+    /**
+     * 필드에 직접 값을 채운다. 프로퍼티 이름은 경로 이름 또는 alias 를 사용한다.
+     */
+    public static <T> CompiledProjection<T> fields(Class<? extends T> type, Expression<?>... exprs) {
+        List<Object> names = Arrays.stream(exprs).map(CompiledProjections::nameOf).map(Object.class::cast).toList();
+        RowMapper mapper = MAPPERS.get(type).computeIfAbsent(new Binding(Kind.FIELDS, names),
+            binding -> beanMapper(type, names, true));
+        return new CompiledProjection<>(type, List.of(exprs), mapper);
+    }
+
+    /**
+     * 인자 타입이 맞는 생성자로 만든다.
+     */
+    public static <T> CompiledProjection<T> constructor(Class<? extends T> type, Expression<?>... exprs) {
+        List<Object> argTypes = Arrays.stream(exprs).map(Expression::getType).map(Object.class::cast).toList();
+        RowMapper mapper = MAPPERS.get(type).computeIfAbsent(new Binding(Kind.CONSTRUCTOR, argTypes),
+            binding -> constructorMapper(type, argTypes));
+        return new CompiledProjection<>(type, List.of(exprs), mapper);
+    }
+
+    private static RowMapper beanMapper(Class<?> type, List<Object> names, boolean fieldAccess) {
+        Supplier<Object> instantiator = instantiator(type);
+        int size = names.size();
+        @SuppressWarnings("unchecked")
+        BiConsumer<Object, Object>[] setters = new BiConsumer[size];
+        boolean[] primitives = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            String name = (String) names.get(i);
+            if (fieldAccess) {
+                Field field = ReflectionUtils.findField(type, name);
+                if (field == null) {
+                    throw new IllegalArgumentException("No field " + name + " in " + type.getName());
+                }
+                setters[i] = fieldSetter(field);
+                primitives[i] = field.getType().isPrimitive();
+            } else {
+                var property = BeanUtils.getPropertyDescriptor(type, name);
+                if (property == null || property.getWriteMethod() == null) {
+                    throw new IllegalArgumentException("No setter for " + name + " in " + type.getName());
+                }
+                setters[i] = setter(type, property.getWriteMethod());
+                primitives[i] = property.getPropertyType().isPrimitive();
+            }
+        }
+
+        return row -> {
+            Object bean = instantiator.get();
+            for (int i = 0; i < size; i++) {
+                if (row[i] != null || !primitives[i]) {
+                    setters[i].accept(bean, row[i]);
+                }
+            }
+            return bean;
+        };
+    }
+
+    private static RowMapper constructorMapper(Class<?> type, List<Object> argTypes) {
+        Constructor<?> constructor = findConstructor(type, argTypes);
+        int size = argTypes.size();
+        MethodHandle handle = spreader(type, constructor);
+
+        Object[] defaults = new Object[size];
+        boolean hasPrimitive = false;
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        for (int i = 0; i < size; i++) {
+            if (parameterTypes[i].isPrimitive()) {
+                defaults[i] = Array.get(Array.newInstance(parameterTypes[i], 1), 0);
+                hasPrimitive = true;
+            }
+        }
+
+        if (!hasPrimitive) {
+            return row -> (Object) handle.invokeExact(row);
+        }
+        return row -> {
+            Object[] args = row;
+            for (int i = 0; i < size; i++) {
+                if (args[i] == null && defaults[i] != null) {
+                    if (args == row) {
+                        args = row.clone();
+                    }
+                    args[i] = defaults[i];
+                }
+            }
+            return (Object) handle.invokeExact(args);
+        };
+    }
+
+    /**
+     * (Object[]) -> Object 형태로 맞춘 생성자
+     */
+    private static MethodHandle spreader(Class<?> type, Constructor<?> constructor) {
+        int size = constructor.getParameterCount();
+        try {
+            return lookupIn(type).unreflectConstructor(constructor)
+                .asType(MethodType.genericMethodType(size))
+                .asSpreader(Object[].class, size);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Can not access constructor of " + type.getName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> instantiator(Class<?> type) {
+        try {
+            MethodHandles.Lookup lookup = lookupIn(type);
+            MethodHandle constructor = lookup.findConstructor(type, MethodType.methodType(void.class));
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class), constructor, MethodType.methodType(type));
+                return (Supplier<Object>) site.getTarget().invoke();
+            } catch (Throwable e) {
+                // 숨김 클래스를 만들 수 없는 경우(다른 클래스 로더 등)에는 MethodHandle 을 직접 호출한다
+                MethodHandle generic = constructor.asType(MethodType.methodType(Object.class));
+                return () -> invoke(generic);
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("No accessible default constructor in " + type.getName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(Class<?> type, Method writeMethod) {
+        MethodHandle handle;
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = lookupIn(type);
+            handle = lookup.unreflect(writeMethod);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Can not access " + writeMethod, e);
+        }
+        try {
+            Class<?> valueType = ClassUtils.resolvePrimitiveIfNecessary(writeMethod.getParameterTypes()[0]);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+                MethodType.methodType(void.class, Object.class, Object.class), handle,
+                MethodType.methodType(void.class, type, valueType));
+            return (BiConsumer<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            return genericSetter(handle);
+        }
+    }
+
+    private static BiConsumer<Object, Object> fieldSetter(Field field) {
+        try {
+            return genericSetter(lookupIn(field.getDeclaringClass()).unreflectSetter(field));
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Can not access " + field, e);
+        }
+    }
+
+    private static BiConsumer<Object, Object> genericSetter(MethodHandle handle) {
+        MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (bean, value) -> invoke(generic, bean, value);
+    }
+
+    private static Object invoke(MethodHandle constructor) {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new ExpressionException(e.getMessage(), e);
+        }
+    }
+
+    private static void invoke(MethodHandle setter, Object bean, Object value) {
+        try {
+            setter.invokeExact(bean, value);
+        } catch (Throwable e) {
+            throw new ExpressionException(e.getMessage(), e);
+        }
+    }
+
+    private static MethodHandles.Lookup lookupIn(Class<?> type) throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+    }
+
+    private static Constructor<?> findConstructor(Class<?> type, List<Object> argTypes) {
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            Class<?>[] parameterTypes = constructor.getParameterTypes();
+            if (parameterTypes.length != argTypes.size()) {
+                continue;
+            }
+            boolean matches = true;
+            for (int i = 0; i < parameterTypes.length && matches; i++) {
+                matches = ClassUtils.isAssignable(parameterTypes[i], (Class<?>) argTypes.get(i));
+            }
+            if (matches) {
+                return constructor;
+            }
+        }
+        throw new IllegalArgumentException("No constructor of " + type.getName() + " for " + argTypes);
+    }
+
+    private static String nameOf(Expression<?> expr) {
+        if (expr instanceof Path<?> path) {
+            return path.getMetadata().getName();
+        }
+        if (expr instanceof Operation<?> operation && operation.getOperator() == Ops.ALIAS) {
+            return ((Path<?>) operation.getArg(1)).getMetadata().getName();
+        }
+        throw new IllegalArgumentException("Unsupported expression " + expr);
+    }
+
+    private enum Kind {
+        BEAN, FIELDS, CONSTRUCTOR
+    }
+
+    private record Binding(Kind kind, List<Object> signature) {
+    }
+
+    @FunctionalInterface
+    private interface RowMapper {
+
+        Object map(Object[] row) throws Throwable;
+    }
+
+    /**
+     * 조회 컬럼과 미리 만들어 둔 행 매핑 함수를 가진 프로젝션
+     */
+    public static class CompiledProjection<T> extends FactoryExpressionBase<T> {
+
+        private final List<Expression<?>> args;
+        private final RowMapper mapper;
+
+        private CompiledProjection(Class<? extends T> type, List<Expression<?>> args, RowMapper mapper) {
+            super(type);
+            this.args = args;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public List<Expression<?>> getArgs() {
+            return args;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T newInstance(Object... row) {
+            try {
+                return (T) mapper.map(row);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new ExpressionException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public <R, C> R accept(Visitor<R, C> v, C context) {
+            return v.visit(this, context);
+        }
+    }
+}
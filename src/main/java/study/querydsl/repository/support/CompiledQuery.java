@@ -0,0 +1,98 @@
+package study.querydsl.repository.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.FactoryExpressionUtils;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.jpa.JPAProvider;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAUtil;
+
+/**
+ * 한 번 직렬화한 JPQL 과 파라미터 바인딩 순서를 보관한다.
+ * 값이 들어갈 자리는 {@link com.querydsl.core.types.dsl.Param} 으로 두고 실행할 때마다 값만 바인딩한다.
+ * 같은 JPQL 문자열을 재사용하므로 Hibernate 쿼리 플랜 캐시에서 HQL 파싱 결과도 재사용된다.
+ */
+public class CompiledQuery<T> {
+
+    private final String jpql;
+    private final List<Object> constants;
+    private final FactoryExpression<T> projection;
+
+    private CompiledQuery(String jpql, List<Object> constants, FactoryExpression<T> projection) {
+        this.jpql = jpql;
+        this.constants = constants;
+        this.projection = projection;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> CompiledQuery<T> compile(EntityManager em, JPAQuery<T> query) {
+        QueryMetadata metadata = query.getMetadata();
+        JPQLSerializer serializer = new JPQLSerializer(JPAProvider.getTemplates(em), em);
+        serializer.serialize(metadata, false, null);
+
+        Expression<?> projection = metadata.getProjection();
+        FactoryExpression<T> factoryExpression = projection instanceof FactoryExpression
+            ? FactoryExpressionUtils.wrap((FactoryExpression<T>) projection)
+            : null;
+
+        return new CompiledQuery<>(serializer.toString(), List.copyOf(serializer.getConstants()), factoryExpression);
+    }
+
+    static <T> CompiledQuery<T> of(String jpql, List<Object> constants) {
+        return new CompiledQuery<>(jpql, List.copyOf(constants), null);
+    }
+
+    public List<T> fetch(EntityManager em, Map<ParamExpression<?>, Object> params) {
+        return fetch(em, params, null, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<T> fetch(EntityManager em, Map<ParamExpression<?>, Object> params, Long offset, Long limit) {
+        Query query = createQuery(em, params);
+        if (offset != null) {
+            query.setFirstResult(Math.toIntExact(offset));
+        }
+        if (limit != null) {
+            query.setMaxResults(Math.toIntExact(limit));
+        }
+
+        List<?> rows = query.getResultList();
+        if (projection == null) {
+            return (List<T>) rows;
+        }
+        List<T> results = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            results.add(projection.newInstance(row instanceof Object[] args ? args : new Object[] {row}));
+        }
+        return results;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T fetchOne(EntityManager em, Map<ParamExpression<?>, Object> params) {
+        Object row = createQuery(em, params).getSingleResult();
+        if (projection == null) {
+            return (T) row;
+        }
+        return projection.newInstance(row instanceof Object[] args ? args : new Object[] {row});
+    }
+
+    public String getJpql() {
+        return jpql;
+    }
+
+    private Query createQuery(EntityManager em, Map<ParamExpression<?>, Object> params) {
+        Query query = em.createQuery(jpql);
+        JPAUtil.setConstants(query, constants, params);
+        return query;
+    }
+}
@@ -0,0 +1,60 @@
+package study.querydsl.repository.support;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * 페이징 count 쿼리 결과 캐시. 검색 조건별로 전체 카운트를 TTL 동안 보관하고,
+ * 엔티티 변경 시 {@link #invalidateAll()} 로 한 번에 무효화한다.
+ * 쓰기 트랜잭션 안에서 센 값은 커밋 전 데이터일 수 있으므로 캐시에서 읽지도, 넣지도 않는다.
+ */
+public class CountCache {
+
+    private final Cache<Object, Entry> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public CountCache(Duration ttl, long maximumSize) {
+        Assert.notNull(ttl, "TTL must not be null!");
+        this.cache = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maximumSize)
+            .build();
+    }
+
+    public long get(Object key, LongSupplier countSupplier) {
+        if (isInReadWriteTransaction()) {
+            return countSupplier.getAsLong();
+        }
+
+        long current = generation.get();
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.generation() == current) {
+            return entry.count();
+        }
+
+        long count = countSupplier.getAsLong();
+        // 조회 중에 무효화가 일어났다면 이전 세대로 기록되어 다음 조회에서 다시 계산된다
+        cache.put(key, new Entry(current, count));
+        return count;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private static boolean isInReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private record Entry(long generation, long count) {
+    }
+}
@@ -0,0 +1,300 @@
+package study.querydsl.repository.support;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.JoinFlag;
+import com.querydsl.core.JoinType;
+import com.querydsl.core.QueryFlag;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.CollectionExpression;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.MapExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.core.types.TemplateExpression;
+import com.querydsl.core.types.Visitor;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.JPAProvider;
+import com.querydsl.jpa.JPAQueryMixin;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAUtil;
+
+/**
+ * count 쿼리에서 결과 건수에 영향을 주지 않는 부분을 제거한다.
+ * <ul>
+ *     <li>order by, offset, limit</li>
+ *     <li>fetch join 플래그</li>
+ *     <li>어떤 조건에서도 참조하지 않는 to-one left join</li>
+ * </ul>
+ * to-one left join 은 행을 늘리거나 줄이지 않으므로 제거해도 건수가 같고, 조인이 없으면 member 인덱스만으로 count 할 수 있다.
+ * {@link #derive(EntityManager, JPAQuery)} 는 같은 규칙으로 content 쿼리에서 count 쿼리를 만든다.
+ */
+public final class CountQueries {
+
+    private CountQueries() {
+    }
+
+    public static <T> JPAQuery<T> optimize(EntityManager em, JPAQuery<T> countQuery) {
+        QueryMetadata metadata = countQuery.getMetadata();
+
+        DefaultQueryMetadata optimized = prune(metadata, metadata.getProjection());
+        optimized.setDistinct(metadata.isDistinct());
+        optimized.setProjection(metadata.getProjection());
+        optimized.setUnique(metadata.isUnique());
+
+        return new JPAQuery<>(em, optimized);
+    }
+
+    /**
+     * content 쿼리의 전체 건수를 구한다. projection 과 fetch join 은 제거하고,
+     * distinct 조회이거나 컬렉션 fetch join 으로 Hibernate 가 root 엔티티 중복을 제거하는 경우에만 count(distinct) 를 사용한다.
+     * group by 와 여러 컬럼 distinct 는 JPQL count 로 표현할 수 없어 그룹 키(distinct 행)를 조회하는 쿼리를
+     * Hibernate 6 의 from 절 서브쿼리로 감싸 DB 에서 센다. 키를 애플리케이션으로 가져오지 않는다.
+     */
+    public static LongSupplier derive(EntityManager em, JPAQuery<?> contentQuery) {
+        QueryMetadata metadata = contentQuery.getMetadata();
+        Expression<?> projection = metadata.getProjection();
+
+        if (!metadata.getGroupBy().isEmpty()) {
+            List<Expression<?>> groupBy = metadata.getGroupBy();
+            Expression<?> groupKey = groupBy.size() == 1
+                ? groupBy.get(0)
+                : Projections.tuple(groupBy.toArray(new Expression<?>[0]));
+            DefaultQueryMetadata keys = prune(metadata, null);
+            keys.setDistinct(metadata.isDistinct());
+            keys.setProjection(groupKey);
+            return countRows(em, keys);
+        }
+
+        if (metadata.isDistinct() && !(projection instanceof EntityPath<?>)) {
+            DefaultQueryMetadata rows = prune(metadata, projection);
+            rows.setDistinct(true);
+            rows.setProjection(projection);
+            return countRows(em, rows);
+        }
+
+        Expression<?> root = rootOf(metadata);
+        Expression<Long> counter;
+        if (metadata.isDistinct()) {
+            counter = ExpressionUtils.operation(Long.class, Ops.AggOps.COUNT_DISTINCT_AGG, projection);
+        } else if (root.equals(projection) && hasCollectionFetchJoin(metadata)) {
+            counter = ExpressionUtils.operation(Long.class, Ops.AggOps.COUNT_DISTINCT_AGG, root);
+        } else {
+            counter = ExpressionUtils.operation(Long.class, Ops.AggOps.COUNT_AGG, root);
+        }
+
+        DefaultQueryMetadata count = prune(metadata, counter);
+        count.setProjection(counter);
+        count.setUnique(true);
+        JPAQuery<Long> countQuery = new JPAQuery<>(em, count);
+        return countQuery::fetchOne;
+    }
+
+    /**
+     * rows 쿼리를 from 절 서브쿼리로 감싸 최대 limit 행까지만 DB 에서 센다. 행을 애플리케이션으로 가져오지 않는다.
+     * limit 은 실행할 때 params 에 넣은 값으로 바인딩하므로 한 번 컴파일한 쿼리를 상한과 관계없이 재사용한다.
+     */
+    public static CompiledQuery<Long> compileCountUpTo(EntityManager em, JPAQuery<?> rows, Param<Integer> limit) {
+        JPQLSerializer serializer = new JPQLSerializer(JPAProvider.getTemplates(em), em);
+        serializer.serialize(rows.getMetadata(), false, null);
+        // limit 은 직렬화된 상수 다음 위치 파라미터가 된다
+        List<Object> constants = new ArrayList<>(serializer.getConstants());
+        constants.add(limit);
+        String jpql = "select count(*) from (" + serializer + " limit ?" + constants.size() + ") counted";
+        return CompiledQuery.of(jpql, constants);
+    }
+
+    /**
+     * select count(*) from (rows) 로 행 수를 센다. Querydsl 은 from 절 서브쿼리를 만들 수 없어 직렬화한 JPQL 을 감싼다.
+     */
+    private static LongSupplier countRows(EntityManager em, QueryMetadata rows) {
+        JPQLSerializer serializer = new JPQLSerializer(JPAProvider.getTemplates(em), em);
+        serializer.serialize(rows, false, null);
+        String jpql = "select count(*) from (" + serializer + ") counted";
+        List<Object> constants = List.copyOf(serializer.getConstants());
+        Map<ParamExpression<?>, Object> params = rows.getParams();
+
+        return () -> {
+            Query query = em.createQuery(jpql);
+            JPAUtil.setConstants(query, constants, params);
+            return ((Number) query.getSingleResult()).longValue();
+        };
+    }
+
+    /**
+     * 조인, 조건, group by, having 을 복사하면서 아무도 참조하지 않는 to-one left join 과 fetch join 플래그를 제거한다.
+     */
+    private static DefaultQueryMetadata prune(QueryMetadata metadata, Expression<?> projection) {
+        List<JoinExpression> joins = metadata.getJoins();
+
+        Set<Path<?>> referenced = new HashSet<>();
+        collectRoots(projection, referenced);
+        collectRoots(metadata.getWhere(), referenced);
+        collectRoots(metadata.getHaving(), referenced);
+        metadata.getGroupBy().forEach(groupBy -> collectRoots(groupBy, referenced));
+
+        // 뒤쪽 조인이 앞쪽 alias 를 기준으로 조인할 수 있으므로 뒤에서부터 확인한다
+        boolean[] retained = new boolean[joins.size()];
+        for (int i = joins.size() - 1; i >= 0; i--) {
+            JoinExpression join = joins.get(i);
+            if (isToOneLeftJoin(join) && !referenced.contains(aliasOf(join))) {
+                continue;
+            }
+            retained[i] = true;
+            collectRoots(join.getTarget(), referenced);
+            collectRoots(join.getCondition(), referenced);
+        }
+
+        DefaultQueryMetadata pruned = new DefaultQueryMetadata().noValidate();
+        for (int i = 0; i < joins.size(); i++) {
+            if (retained[i]) {
+                copyJoin(joins.get(i), pruned);
+            }
+        }
+        if (metadata.getWhere() != null) {
+            pruned.addWhere(metadata.getWhere());
+        }
+        metadata.getGroupBy().forEach(pruned::addGroupBy);
+        if (metadata.getHaving() != null) {
+            pruned.addHaving(metadata.getHaving());
+        }
+        for (QueryFlag flag : metadata.getFlags()) {
+            pruned.addFlag(flag);
+        }
+        copyParams(metadata.getParams(), pruned);
+        return pruned;
+    }
+
+    private static Expression<?> rootOf(QueryMetadata metadata) {
+        return metadata.getJoins().get(0).getTarget();
+    }
+
+    private static boolean hasCollectionFetchJoin(QueryMetadata metadata) {
+        for (JoinExpression join : metadata.getJoins()) {
+            if (join.hasFlag(JPAQueryMixin.FETCH) && isCollection(join.getTarget())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCollection(Expression<?> target) {
+        Expression<?> association = isAlias(target) ? ((Operation<?>) target).getArg(0) : target;
+        return association instanceof CollectionExpression || association instanceof MapExpression;
+    }
+
+    private static void copyJoin(JoinExpression join, DefaultQueryMetadata target) {
+        target.addJoin(join.getType(), join.getTarget());
+        if (join.getCondition() != null) {
+            target.addJoinCondition(join.getCondition());
+        }
+        for (JoinFlag flag : join.getFlags()) {
+            // count 쿼리에서 fetch join 은 의미가 없고 Hibernate 6 에서는 오류가 된다
+            if (!flag.equals(JPAQueryMixin.FETCH)) {
+                target.addJoinFlag(flag);
+            }
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static void copyParams(Map<ParamExpression<?>, Object> params, DefaultQueryMetadata target) {
+        params.forEach((param, value) -> target.setParam((ParamExpression) param, value));
+    }
+
+    private static boolean isToOneLeftJoin(JoinExpression join) {
+        return join.getType() == JoinType.LEFTJOIN && isAlias(join.getTarget()) && !isCollection(join.getTarget());
+    }
+
+    private static Path<?> aliasOf(JoinExpression join) {
+        return (Path<?>) ((Operation<?>) join.getTarget()).getArg(1);
+    }
+
+    private static boolean isAlias(Expression<?> target) {
+        return target instanceof Operation<?> operation && operation.getOperator() == Ops.ALIAS;
+    }
+
+    private static void collectRoots(Expression<?> expression, Set<Path<?>> roots) {
+        if (expression != null) {
+            expression.accept(RootPathCollector.INSTANCE, roots);
+        }
+    }
+
+    /**
+     * 표현식에서 참조하는 모든 경로의 root(alias) 를 모은다. 서브쿼리 안의 참조도 포함한다.
+     */
+    private enum RootPathCollector implements Visitor<Void, Set<Path<?>>> {
+
+        INSTANCE;
+
+        @Override
+        public Void visit(Constant<?> expr, Set<Path<?>> roots) {
+            return null;
+        }
+
+        @Override
+        public Void visit(FactoryExpression<?> expr, Set<Path<?>> roots) {
+            expr.getArgs().forEach(arg -> arg.accept(this, roots));
+            return null;
+        }
+
+        @Override
+        public Void visit(Operation<?> expr, Set<Path<?>> roots) {
+            expr.getArgs().forEach(arg -> arg.accept(this, roots));
+            return null;
+        }
+
+        @Override
+        public Void visit(ParamExpression<?> expr, Set<Path<?>> roots) {
+            return null;
+        }
+
+        @Override
+        public Void visit(Path<?> expr, Set<Path<?>> roots) {
+            roots.add(expr.getRoot());
+            return null;
+        }
+
+        @Override
+        public Void visit(SubQueryExpression<?> expr, Set<Path<?>> roots) {
+            QueryMetadata metadata = expr.getMetadata();
+            collectRoots(metadata.getProjection(), roots);
+            collectRoots(metadata.getWhere(), roots);
+            collectRoots(metadata.getHaving(), roots);
+            metadata.getGroupBy().forEach(groupBy -> collectRoots(groupBy, roots));
+            for (JoinExpression join : metadata.getJoins()) {
+                collectRoots(join.getTarget(), roots);
+                collectRoots(join.getCondition(), roots);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(TemplateExpression<?> expr, Set<Path<?>> roots) {
+            for (Object arg : expr.getArgs()) {
+                if (arg instanceof Expression<?> expression) {
+                    expression.accept(this, roots);
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package study.querydsl.repository.support;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 페이징의 content 쿼리와 count 쿼리를 실행한다.
+ * concurrent 모드에서는 count 쿼리를 별도 스레드의 읽기 전용 트랜잭션(별도 커넥션)에서 content 쿼리와 동시에 실행한다.
+ * 쓰기 트랜잭션 안에서는 커밋 전 변경 내용이 count 에 반영되도록 기존처럼 순서대로 실행한다.
+ */
+public class CountQueryExecutor implements AutoCloseable {
+
+    private final boolean concurrent;
+    private final ThreadPoolExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration timeout;
+
+    public CountQueryExecutor(boolean concurrent, PlatformTransactionManager transactionManager, int threads,
+        int queueCapacity, Duration timeout) {
+        this.concurrent = concurrent;
+        this.timeout = timeout;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("count-query-"));
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // 트랜잭션 타임아웃은 쿼리 타임아웃으로도 적용되어 DB 에서 count 쿼리를 중단시킨다
+        this.readOnlyTransaction.setTimeout(Math.toIntExact(Math.max(1, timeout.toSeconds())));
+    }
+
+    public <T> Page<T> getPage(Supplier<List<T>> contentQuery, Pageable pageable, LongSupplier countQuery) {
+        if (!concurrent || isInReadWriteTransaction()) {
+            return PageableExecutionUtils.getPage(contentQuery.get(), pageable, countQuery);
+        }
+
+        Future<Long> total = submit(countQuery);
+        if (total == null) {
+            // 실행 대기열이 가득 차면 호출 스레드에서 순서대로 실행한다
+            return PageableExecutionUtils.getPage(contentQuery.get(), pageable, countQuery);
+        }
+
+        try {
+            return PageableExecutionUtils.getPage(contentQuery.get(), pageable, () -> await(total));
+        } finally {
+            // content 만으로 전체 건수를 알 수 있었거나 실패한 경우 아직 시작하지 않은 count 쿼리를 취소한다.
+            // 실행 중인 JDBC 호출은 interrupt 로 안전하게 멈출 수 없으므로 트랜잭션(쿼리) 타임아웃에 맡긴다
+            total.cancel(false);
+        }
+    }
+
+    @Override
+    public void close() {
+        // 실행 중인 count 쿼리는 쿼리 타임아웃 안에 끝난다
+        executor.shutdown();
+    }
+
+    private Future<Long> submit(LongSupplier countQuery) {
+        try {
+            return executor.submit(() -> readOnlyTransaction.execute(status -> countQuery.getAsLong()));
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    private long await(Future<Long> total) {
+        try {
+            return total.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            total.cancel(false);
+            throw new QueryTimeoutException("Count query did not finish within " + timeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for count query", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static boolean isInReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
@@ -0,0 +1,31 @@
+package study.querydsl.repository.support;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 커서 기반 페이징 결과. 전체 카운트 대신 다음 페이지 존재 여부와 다음 커서만 제공한다.
+ */
+@Getter
+@ToString
+public class CursorPage<T> {
+
+    /**
+     * 한 번에 조회할 수 있는 최대 건수. spring.data.web.pageable.max-page-size 기본값과 같다.
+     */
+    public static final int MAX_SIZE = 2000;
+
+    private final List<T> content;
+    private final int size;
+    private final boolean hasNext;
+    private final String nextCursor;
+
+    public CursorPage(List<T> content, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+}
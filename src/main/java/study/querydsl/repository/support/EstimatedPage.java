@@ -0,0 +1,32 @@
+package study.querydsl.repository.support;
+
+import java.util.List;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import lombok.Getter;
+
+/**
+ * 전체 건수가 정확한 값인지 추정치인지 함께 알려주는 Page.
+ */
+@Getter
+public class EstimatedPage<T> extends PageImpl<T> {
+
+    private final TotalType totalType;
+
+    public EstimatedPage(List<T> content, Pageable pageable, long total, TotalType totalType) {
+        super(content, pageable, total);
+        this.totalType = totalType;
+    }
+
+    public enum TotalType {
+
+        /** count 쿼리 또는 마지막 페이지로 구한 정확한 값 */
+        EXACT,
+        /** DB 통계나 표본 선택도로 추정한 값 */
+        ESTIMATED,
+        /** 상한을 넘었다는 것만 아는 값. 전체 건수는 상한 + 1 로 표시한다 */
+        CAPPED
+    }
+}
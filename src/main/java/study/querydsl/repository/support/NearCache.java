@@ -0,0 +1,75 @@
+package study.querydsl.repository.support;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * 자주 조회되는 값을 애플리케이션 메모리에 보관하는 read-through 캐시.
+ * 크기 제한을 넘으면 Caffeine 의 W-TinyLFU 정책으로 자주 쓰이는 키를 남긴다.
+ * 쓰기 트랜잭션 안에서는 아직 flush 되지 않은 변경을 놓치지 않도록 캐시를 사용하지 않는다.
+ */
+public class NearCache<K, V> implements MeterBinder {
+
+    private final String name;
+    private final Cache<K, V> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public NearCache(String name, Duration ttl, long maximumSize) {
+        this.name = name;
+        this.cache = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maximumSize)
+            .recordStats()
+            .build();
+    }
+
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        if (isInReadWriteTransaction()) {
+            return loader.apply(key);
+        }
+
+        V cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long current = generation.get();
+        Optional<V> loaded = loader.apply(key);
+        // 조회 중에 무효화가 일어났다면 이전 값일 수 있으므로 보관하지 않는다
+        if (loaded.isPresent() && generation.get() == current) {
+            cache.put(key, loaded.get());
+        }
+        return loaded;
+    }
+
+    public void invalidate(K key) {
+        generation.incrementAndGet();
+        cache.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+    }
+
+    private static boolean isInReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
@@ -2,6 +2,8 @@ package study.querydsl.repository.support;
 
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
@@ -9,6 +11,7 @@ import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
 import org.springframework.data.jpa.repository.support.Querydsl;
@@ -16,6 +19,7 @@ import org.springframework.data.querydsl.SimpleEntityPathResolver;
 import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
 import com.querydsl.core.types.EntityPath;
 import com.querydsl.core.types.Expression;
@@ -35,7 +39,15 @@ public abstract class Querydsl4RepositorySupport {
     private Querydsl querydsl;
     private EntityManager entityManager;
     private JPAQueryFactory queryFactory;
-
+    private CountCache countCache;
+    private CountQueryExecutor countQueryExecutor;
+
+    /**
+     * 엔티티를 반환하는 조회 전용 리포지토리는 하위 클래스에 {@code @Transactional(readOnly = true)} 를 선언한다.
+     * 읽기 전용 트랜잭션을 시작하면 Spring 이 세션을 read-only, FlushMode.MANUAL 로 열어
+     * 조회한 엔티티의 스냅샷을 만들지 않고 쿼리 전에 자동 flush 하지 않는다.
+     * 호출자의 읽기-쓰기 트랜잭션에 참여하면 일반 세션 그대로 조회하고 변경 감지도 유지한다.
+     */
     public Querydsl4RepositorySupport(Class<?> domainClass) {
         Assert.notNull(domainClass, "Domain class must not be null!");
         this.domainClass = domainClass;
@@ -53,6 +65,16 @@ public abstract class Querydsl4RepositorySupport {
         this.queryFactory = new JPAQueryFactory(entityManager);
     }
 
+    @Autowired(required = false)
+    public void setCountCache(CountCache countCache) {
+        this.countCache = countCache;
+    }
+
+    @Autowired(required = false)
+    public void setCountQueryExecutor(CountQueryExecutor countQueryExecutor) {
+        this.countQueryExecutor = countQueryExecutor;
+    }
+
     @PostConstruct
     public void validate() {
         Assert.notNull(entityManager, "EntityManager must not be null!");
@@ -82,18 +104,63 @@ public abstract class Querydsl4RepositorySupport {
 
     protected <T> Page<T> applyPagination(Pageable pageable, Function<JPAQueryFactory, JPAQuery> contentQuery) {
         JPAQuery jpaQuery = contentQuery.apply(getQueryFactory());
-        List<T> content = getQuerydsl().applyPagination(pageable, jpaQuery).fetch();
+        LongSupplier total = CountQueries.derive(entityManager, jpaQuery);
 
-        return PageableExecutionUtils.getPage(content, pageable, jpaQuery::fetchCount);
+        return getPage(() -> getQuerydsl().applyPagination(pageable, jpaQuery).fetch(), pageable, total);
     }
 
     protected <T> Page<T> applyPagination(Pageable pageable,
         Function<JPAQueryFactory, JPAQuery> contentQuery, Function<JPAQueryFactory, JPAQuery> countQuery) {
 
         JPAQuery jpaContentQuery = contentQuery.apply(getQueryFactory());
-        List<T> content = getQuerydsl().applyPagination(pageable, jpaContentQuery).fetch();
-        JPAQuery<Long> countResult = countQuery.apply(getQueryFactory());
+        JPAQuery<Long> countResult = CountQueries.optimize(entityManager, countQuery.apply(getQueryFactory()));
+
+        return getPage(() -> getQuerydsl().applyPagination(pageable, jpaContentQuery).fetch(), pageable,
+            countResult::fetchOne);
+    }
+
+    /**
+     * count 쿼리 결과를 countCacheKey 로 캐싱한다. 같은 조건으로 반복 조회하면 count 쿼리를 생략한다.
+     * 다른 리포지토리의 count 와 섞이지 않도록 키 앞에 리포지토리 클래스를 붙인다.
+     * 한 리포지토리에서 서로 다른 count 쿼리를 캐싱한다면 countCacheKey 에 쿼리 구분 값을 포함해야 한다.
+     */
+    protected <T> Page<T> applyPagination(Pageable pageable, Object countCacheKey,
+        Function<JPAQueryFactory, JPAQuery> contentQuery, Function<JPAQueryFactory, JPAQuery> countQuery) {
+
+        JPAQuery jpaContentQuery = contentQuery.apply(getQueryFactory());
+        JPAQuery<Long> countResult = CountQueries.optimize(entityManager, countQuery.apply(getQueryFactory()));
+        LongSupplier total = countCache != null
+            ? () -> countCache.get(new CountCacheKey(ClassUtils.getUserClass(getClass()), countCacheKey),
+                countResult::fetchOne)
+            : countResult::fetchOne;
+
+        return getPage(() -> getQuerydsl().applyPagination(pageable, jpaContentQuery).fetch(), pageable, total);
+    }
+
+    /**
+     * count 쿼리 없이 pageSize + 1 건을 조회해 다음 페이지 존재 여부만 판단한다.
+     */
+    protected <T> Slice<T> applySlice(Pageable pageable, Function<JPAQueryFactory, JPAQuery> contentQuery) {
+        JPAQuery jpaQuery = contentQuery.apply(getQueryFactory());
+        getQuerydsl().applyPagination(pageable, jpaQuery);
+        if (pageable.isPaged()) {
+            jpaQuery.limit(Slices.limitOf(pageable));
+        }
+
+        List<T> content = jpaQuery.fetch();
+        return Slices.of(content, pageable);
+    }
+
+    /**
+     * CountQueryExecutor 가 있으면 count 쿼리를 content 쿼리와 동시에 실행할 수 있도록 위임한다.
+     */
+    private <T> Page<T> getPage(Supplier<List<T>> content, Pageable pageable, LongSupplier total) {
+        if (countQueryExecutor == null) {
+            return PageableExecutionUtils.getPage(content.get(), pageable, total);
+        }
+        return countQueryExecutor.getPage(content, pageable, total);
+    }
 
-        return PageableExecutionUtils.getPage(content, pageable, countResult::fetchOne);
+    private record CountCacheKey(Class<?> repository, Object key) {
     }
 }
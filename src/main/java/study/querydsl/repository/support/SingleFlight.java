@@ -0,0 +1,91 @@
+package study.querydsl.repository.support;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * 같은 키로 동시에 들어온 조회를 하나로 합친다. 먼저 들어온 요청만 DB 를 조회하고,
+ * 실행 중에 들어온 요청은 그 결과를 함께 받는다. 결과 객체를 공유하므로 호출자는 결과를 변경하면 안 된다.
+ * 트랜잭션 안에서는 커밋 전 데이터가 다른 요청에 전달되지 않도록 합치지 않는다.
+ */
+public class SingleFlight implements MeterBinder {
+
+    private final String name;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V execute(Object key, Supplier<V> query) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return query.get();
+        }
+
+        CompletableFuture<Object> leader = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, leader);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return (V) await(running);
+        }
+
+        executed.incrementAndGet();
+        try {
+            V result = query.get();
+            leader.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            leader.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+
+    public long getExecuted() {
+        return executed.get();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("querydsl.single.flight.requests", executed, AtomicLong::get)
+            .tags("name", name, "result", "executed")
+            .description("Requests that ran the query themselves")
+            .register(registry);
+        FunctionCounter.builder("querydsl.single.flight.requests", coalesced, AtomicLong::get)
+            .tags("name", name, "result", "coalesced")
+            .description("Requests that shared the result of an in-flight query")
+            .register(registry);
+    }
+
+    private static Object await(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
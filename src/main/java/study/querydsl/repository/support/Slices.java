@@ -0,0 +1,30 @@
+package study.querydsl.repository.support;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * count 쿼리 없이 Slice 를 만든다. content 는 pageSize + 1 건까지 조회한 결과여야 한다.
+ */
+public final class Slices {
+
+    private Slices() {
+    }
+
+    public static long limitOf(Pageable pageable) {
+        return pageable.getPageSize() + 1L;
+    }
+
+    public static <T> Slice<T> of(List<T> content, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(content, pageable, false);
+        }
+        // 한 건 더 조회되었다면 다음 페이지가 있다
+        boolean hasNext = content.size() > pageable.getPageSize();
+        List<T> pageContent = hasNext ? content.subList(0, pageable.getPageSize()) : content;
+        return new SliceImpl<>(pageContent, pageable, hasNext);
+    }
+}
@@ -0,0 +1,38 @@
+package study.querydsl.repository.support;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 테이블별 변경 버전. 엔티티 변경과 벌크 연산에서 올리고, 조회 결과가 바뀌었는지 판단하는 ETag 에 사용한다.
+ * 재시작하면 버전이 0 부터 다시 시작하므로 시작 시각(epoch)을 함께 사용한다.
+ */
+public class TableVersions {
+
+    public static final String MEMBER = "member";
+    public static final String TEAM = "team";
+
+    private final long epoch = System.currentTimeMillis();
+    private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public void bump(String table) {
+        versions.computeIfAbsent(table, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    public long version(String table) {
+        AtomicLong version = versions.get(table);
+        return version != null ? version.get() : 0;
+    }
+
+    /**
+     * 주어진 테이블 버전을 모두 포함한 값. 하나라도 바뀌면 다른 값이 된다.
+     */
+    public String fingerprint(String... tables) {
+        StringBuilder fingerprint = new StringBuilder(Long.toString(epoch, 36));
+        for (String table : tables) {
+            fingerprint.append('-').append(version(table));
+        }
+        return fingerprint.toString();
+    }
+}
@@ -0,0 +1,123 @@
+package study.querydsl.service;
+
+import static org.springframework.util.StringUtils.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import study.querydsl.dto.MemberSearchCond;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberJpaRepository;
+
+/**
+ * 여러 검색 조건을 한 번에 처리한다.
+ * 회원명만 있는 조건은 username in (...) 쿼리 하나로 합치고, 나머지는 제한된 스레드 풀에서 동시에 실행한다.
+ * 결과는 요청 목록의 index 를 키로 반환한다.
+ */
+@Service
+public class MemberBatchSearchService {
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final ThreadPoolExecutor executor;
+    private final int maxBatchSize;
+    private final Duration timeout;
+
+    public MemberBatchSearchService(MemberJpaRepository memberJpaRepository,
+        @Value("${member.batch-search.threads:8}") int threads,
+        @Value("${member.batch-search.max-batch-size:50}") int maxBatchSize,
+        @Value("${member.batch-search.timeout:5s}") Duration timeout) {
+        this.memberJpaRepository = memberJpaRepository;
+        this.maxBatchSize = maxBatchSize;
+        this.timeout = timeout;
+        // 풀과 대기열이 가득 차면 요청 스레드에서 직접 실행해 속도를 맞춘다
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(threads * 4), new CustomizableThreadFactory("member-search-"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public Map<Integer, List<MemberTeamDto>> search(List<MemberSearchCond> conditions) {
+        // 합친 조회와 개별 조회 모두 요청 시점부터 하나의 timeout 안에 끝나야 한다
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Assert.notEmpty(conditions, "Conditions must not be empty!");
+        Assert.noNullElements(conditions, "Conditions must not contain null!");
+        Assert.isTrue(conditions.size() <= maxBatchSize, "At most " + maxBatchSize + " conditions are allowed");
+
+        Map<Integer, String> usernameOnly = new LinkedHashMap<>();
+        Map<Integer, Future<List<MemberTeamDto>>> pending = new LinkedHashMap<>();
+        for (int i = 0; i < conditions.size(); i++) {
+            MemberSearchCond condition = conditions.get(i).normalize();
+            if (isUsernameOnly(condition)) {
+                usernameOnly.put(i, condition.getUsername());
+            } else {
+                pending.put(i, executor.submit(() -> memberJpaRepository.search(condition)));
+            }
+        }
+
+        Map<Integer, List<MemberTeamDto>> results = new TreeMap<>();
+        try {
+            if (!usernameOnly.isEmpty()) {
+                Set<String> usernames = new LinkedHashSet<>(usernameOnly.values());
+                Map<String, List<MemberTeamDto>> byUsername = memberJpaRepository.searchByUsernames(usernames)
+                    .stream()
+                    .collect(Collectors.groupingBy(MemberTeamDto::getUsername));
+                usernameOnly.forEach((index, username) ->
+                    results.put(index, new ArrayList<>(byUsername.getOrDefault(username, List.of()))));
+            }
+
+            for (Map.Entry<Integer, Future<List<MemberTeamDto>>> entry : pending.entrySet()) {
+                results.put(entry.getKey(), await(entry.getValue(), deadline));
+            }
+        } finally {
+            pending.values().forEach(future -> future.cancel(true));
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private List<MemberTeamDto> await(Future<List<MemberTeamDto>> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("Batch search did not finish within " + timeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for batch search", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static boolean isUsernameOnly(MemberSearchCond condition) {
+        return hasText(condition.getUsername()) && condition.getTeamName() == null
+            && condition.getAgeGoe() == null && condition.getAgeLoe() == null;
+    }
+}
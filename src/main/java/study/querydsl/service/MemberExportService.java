@@ -0,0 +1,94 @@
+package study.querydsl.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import study.querydsl.dto.MemberSearchCond;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberJpaRepository;
+
+/**
+ * 회원 검색 결과를 한 행씩 읽어 바로 응답으로 내보낸다. 결과 전체를 메모리에 올리지 않는다.
+ */
+@Service
+public class MemberExportService {
+
+    private static final String CSV_HEADER = "memberId,username,age,teamId,teamName";
+    private static final String NEW_LINE = "\n";
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final ObjectWriter rowWriter;
+    private final int fetchSize;
+
+    public MemberExportService(MemberJpaRepository memberJpaRepository, ObjectMapper objectMapper,
+        @Value("${member.export.fetch-size:500}") int fetchSize) {
+        this.memberJpaRepository = memberJpaRepository;
+        // 행마다 응답 스트림을 닫거나 flush 하지 않도록 한다
+        this.rowWriter = objectMapper.writerFor(MemberTeamDto.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET, JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        this.fetchSize = fetchSize;
+    }
+
+    @Transactional(readOnly = true)
+    public long export(MemberSearchCond condition, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write(NEW_LINE);
+        }
+
+        long rows = 0;
+        try (Stream<MemberTeamDto> stream = memberJpaRepository.searchStream(condition, fetchSize)) {
+            Iterator<MemberTeamDto> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                // DTO 프로젝션이므로 영속성 컨텍스트에 엔티티가 쌓이지 않는다
+                writeRow(writer, format, iterator.next());
+                rows++;
+            }
+        }
+
+        writer.flush();
+        return rows;
+    }
+
+    private void writeRow(Writer writer, ExportFormat format, MemberTeamDto row) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            rowWriter.writeValue(writer, row);
+        } else {
+            writer.write(String.valueOf(row.getMemberId()));
+            writer.write(',');
+            writer.write(csv(row.getUsername()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getAge()));
+            writer.write(',');
+            writer.write(row.getTeamId() != null ? String.valueOf(row.getTeamId()) : "");
+            writer.write(',');
+            writer.write(csv(row.getTeamName()));
+        }
+        writer.write(NEW_LINE);
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
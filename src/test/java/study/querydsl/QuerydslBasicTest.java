@@ -36,10 +36,14 @@ import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 
 import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberRecord;
 import study.querydsl.dto.QMemberDto;
+import study.querydsl.dto.QMemberRecord;
 import study.querydsl.dto.UserDto;
+import study.querydsl.dto.UserRecord;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.Team;
+import study.querydsl.repository.support.CompiledProjections;
 
 @Transactional
 @SpringBootTest
@@ -642,6 +646,74 @@ public class QuerydslBasicTest {
         }
     }
 
+    // 리플렉션 대신 미리 만든 setter, 필드 접근, 생성자 함수로 주입
+    @Test
+    void findDtoByCompiledProjections() {
+        List<MemberDto> bySetter = queryFactory
+            .select(CompiledProjections.bean(MemberDto.class, member.username, member.age))
+            .from(member)
+            .orderBy(member.id.asc())
+            .fetch();
+        List<MemberDto> byField = queryFactory
+            .select(CompiledProjections.fields(MemberDto.class, member.username, member.age))
+            .from(member)
+            .orderBy(member.id.asc())
+            .fetch();
+        List<MemberDto> byConstructor = queryFactory
+            .select(CompiledProjections.constructor(MemberDto.class, member.username, member.age))
+            .from(member)
+            .orderBy(member.id.asc())
+            .fetch();
+        List<MemberDto> reflective = queryFactory
+            .select(Projections.bean(MemberDto.class, member.username, member.age))
+            .from(member)
+            .orderBy(member.id.asc())
+            .fetch();
+
+        assertThat(bySetter).isEqualTo(reflective);
+        assertThat(byField).isEqualTo(reflective);
+        assertThat(byConstructor).isEqualTo(reflective);
+    }
+
+    @Test
+    void findUserDtoByCompiledProjections() {
+        List<UserDto> byField = queryFactory
+            .select(CompiledProjections.fields(UserDto.class,
+                member.username.as("name"),
+                ExpressionUtils.as(JPAExpressions
+                    .select(member.age.max())
+                    .from(member), "age")))
+            .from(member)
+            .fetch();
+        List<UserDto> byConstructor = queryFactory
+            .select(CompiledProjections.constructor(UserDto.class, member.username, member.age))
+            .from(member)
+            .where(member.username.eq("member1"))
+            .fetch();
+
+        assertThat(byField).extracting("age").containsOnly(40);
+        assertThat(byConstructor).containsExactly(new UserDto("member1", 10));
+    }
+
+    // record 는 @QueryProjection 으로 만든 Q 타입이나 생성자 프로젝션으로 조회한다
+    @Test
+    void findRecordDto() {
+        List<MemberRecord> byQueryProjection = queryFactory
+            .select(new QMemberRecord(member.username, member.age))
+            .from(member)
+            .orderBy(member.id.asc())
+            .fetch();
+        List<UserRecord> byConstructor = queryFactory
+            .select(Projections.constructor(UserRecord.class, member.username, member.age))
+            .from(member)
+            .orderBy(member.id.asc())
+            .fetch();
+
+        assertThat(byQueryProjection).first().isEqualTo(new MemberRecord("member1", 10));
+        assertThat(byConstructor).extracting(UserRecord::name)
+            .containsExactly("member1", "member2", "member3", "member4");
+    }
+
     @Test
     void dynamicQuery_booleanBuilder() {
         String usernameParam = "member1";
@@ -0,0 +1,55 @@
+package study.querydsl.config.p6spy;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class IndexAdvisorTest {
+
+    @Test
+    void candidateColumns() {
+        Map<String, List<String>> columns = IndexAdvisor.candidateColumns("select m1_0.member_id from member m1_0"
+            + " left join team t1_0 on t1_0.team_id=m1_0.team_id"
+            + " where t1_0.name=? and m1_0.age>=? and m1_0.age<=? and m1_0.username=?"
+            + " order by m1_0.member_id offset ? rows fetch first ? rows only");
+
+        assertThat(columns).containsEntry("member", List.of("username", "age"))
+            .containsEntry("team", List.of("name"));
+    }
+
+    @Test
+    void recommendForTableScans() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:index-advisor;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table member (member_id bigint primary key, username varchar(255), age int)");
+
+        SqlStatsRecorder recorder = new SqlStatsRecorder(10);
+        for (int i = 0; i < 10; i++) {
+            recorder.recordExecution("select m1_0.member_id from member m1_0 where m1_0.age>=10 and m1_0.username='a'",
+                TimeUnit.MILLISECONDS.toNanos(5), false);
+            // pk 조회는 풀 스캔이 아니므로 추천하지 않는다
+            recorder.recordExecution("select m1_0.username from member m1_0 where m1_0.member_id=1",
+                TimeUnit.MILLISECONDS.toNanos(1), false);
+        }
+
+        List<IndexAdvisor.IndexRecommendation> recommendations = new IndexAdvisor(recorder, dataSource).recommend();
+
+        assertThat(recommendations).hasSize(1);
+        IndexAdvisor.IndexRecommendation recommendation = recommendations.get(0);
+        assertThat(recommendation.ddl()).isEqualTo("create index idx_member_username_age on member (username, age)");
+        assertThat(recommendation.annotation())
+            .isEqualTo("@Index(name = \"idx_member_username_age\", columnList = \"username, age\")");
+        assertThat(recommendation.executions()).isEqualTo(10);
+
+        jdbcTemplate.execute(recommendation.ddl());
+        assertThat(new IndexAdvisor(recorder, dataSource).recommend()).isEmpty();
+    }
+}
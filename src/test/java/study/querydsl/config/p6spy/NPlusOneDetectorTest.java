@@ -0,0 +1,41 @@
+package study.querydsl.config.p6spy;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class NPlusOneDetectorTest {
+
+    @Autowired
+    private NPlusOneDetector nPlusOneDetector;
+
+    @Test
+    void detectLazyToOne() {
+        nPlusOneDetector.begin();
+        try {
+            assertThatThrownBy(() -> {
+                for (int i = 0; i < 10; i++) {
+                    nPlusOneDetector.onStatement(
+                        "select t1_0.team_id,t1_0.name from team t1_0 where t1_0.team_id=" + i);
+                }
+            })
+                .isInstanceOf(NPlusOneQueryException.class)
+                .hasMessageContaining("Member.team");
+        } finally {
+            nPlusOneDetector.end();
+        }
+    }
+
+    @Test
+    void ignoredOutsideRequest() {
+        assertThatCode(() -> {
+            for (int i = 0; i < 20; i++) {
+                nPlusOneDetector.onStatement(
+                    "select t1_0.team_id,t1_0.name from team t1_0 where t1_0.team_id=" + i);
+            }
+        }).doesNotThrowAnyException();
+    }
+}
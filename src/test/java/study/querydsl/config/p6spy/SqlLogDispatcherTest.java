@@ -0,0 +1,41 @@
+package study.querydsl.config.p6spy;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.p6spy.engine.logging.Category;
+
+class SqlLogDispatcherTest {
+
+    @Test
+    void uninstalledOnClose() throws InterruptedException {
+        List<String> closedLogs = new ArrayList<>();
+        List<String> currentLogs = new ArrayList<>();
+        SqlLogDispatcher closed = new SqlLogDispatcher(SqlLogPolicy.all(), 0, closedLogs::add);
+        SqlLogDispatcher current = new SqlLogDispatcher(SqlLogPolicy.all(), 0, currentLogs::add);
+        P6SpyAppender appender = new P6SpyAppender();
+        SqlLogDispatcher previous = P6SpyAppender.installed();
+
+        try {
+            P6SpyAppender.install(closed);
+            P6SpyAppender.install(current);
+            // 이미 다른 dispatcher 가 설치되어 있으면 그대로 둔다
+            closed.close();
+            appender.logSQL(1, "now", 1, Category.STATEMENT, "select 1", "select 1", "jdbc:h2:mem:test");
+
+            assertThat(closedLogs).isEmpty();
+            assertThat(currentLogs).hasSize(1);
+
+            current.close();
+            appender.logSQL(1, "now", 1, Category.STATEMENT, "select 1", "select 1", "jdbc:h2:mem:test");
+
+            assertThat(currentLogs).hasSize(1);
+        } finally {
+            P6SpyAppender.install(previous);
+        }
+    }
+}
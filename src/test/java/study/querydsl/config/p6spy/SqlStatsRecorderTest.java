@@ -0,0 +1,43 @@
+package study.querydsl.config.p6spy;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class SqlStatsRecorderTest {
+
+    @Test
+    void normalize() {
+        String shape1 = SqlShapes.normalize("select m1_0.member_id from member m1_0 where m1_0.username='member1'"
+            + " and m1_0.age in (10, 20, 30)");
+        String shape2 = SqlShapes.normalize("select  m1_0.member_id from member m1_0\n where m1_0.username='x'"
+            + " and m1_0.age in (40)");
+
+        assertThat(shape1).isEqualTo("select m1_0.member_id from member m1_0 where m1_0.username=?"
+            + " and m1_0.age in (?)");
+        assertThat(shape2).isEqualTo(shape1);
+    }
+
+    @Test
+    void recordByShape() {
+        SqlStatsRecorder recorder = new SqlStatsRecorder(10);
+        for (int i = 1; i <= 100; i++) {
+            recorder.recordExecution("select * from member where member_id=" + i, TimeUnit.MILLISECONDS.toNanos(i),
+                false);
+            recorder.recordRows("select * from member where member_id=" + i, 1);
+        }
+
+        List<QueryShapeStats.Snapshot> snapshot = recorder.snapshot();
+
+        assertThat(snapshot).hasSize(1);
+        QueryShapeStats.Snapshot stats = snapshot.get(0);
+        assertThat(stats.count()).isEqualTo(100);
+        assertThat(stats.rows()).isEqualTo(100);
+        assertThat(stats.maxMs()).isEqualTo(100.0);
+        assertThat(stats.p50Ms()).isCloseTo(50.0, withinPercentage(12.5));
+        assertThat(stats.p99Ms()).isCloseTo(99.0, withinPercentage(12.5));
+    }
+}
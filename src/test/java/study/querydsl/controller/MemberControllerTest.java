@@ -0,0 +1,66 @@
+package study.querydsl.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import jakarta.persistence.EntityManager;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import study.querydsl.entity.Member;
+import study.querydsl.repository.support.CursorPage;
+
+@Transactional
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberControllerTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void notModifiedUntilMemberChanges() throws Exception {
+        em.persist(new Member("member1", 10));
+        em.flush();
+
+        String etag = mockMvc.perform(get("/v1/members").param("username", "member1"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/v1/members").param("username", "member1").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/v1/members").param("username", "member2").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk());
+
+        em.persist(new Member("member2", 20));
+        em.flush();
+
+        mockMvc.perform(get("/v1/members").param("username", "member1").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void invalidCursorIsBadRequest() throws Exception {
+        mockMvc.perform(get("/v3/members").param("cursor", "not-a-cursor"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void cursorSizeIsCapped() throws Exception {
+        mockMvc.perform(get("/v3/members").param("size", String.valueOf(Integer.MAX_VALUE)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.size").value(CursorPage.MAX_SIZE));
+    }
+}
@@ -0,0 +1,83 @@
+package study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.*;
+import static study.querydsl.entity.QMember.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import study.querydsl.entity.Member;
+import study.querydsl.repository.support.BulkProgress;
+
+/**
+ * 청크마다 커밋하므로 테스트 트랜잭션 없이 실행하고 데이터를 직접 정리한다.
+ */
+@SpringBootTest(properties = "member.bulk.chunk-size=2")
+class MemberBulkRepositoryTest {
+
+    @Autowired
+    private EntityManager em;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MemberBulkRepository memberBulkRepository;
+
+    @BeforeEach
+    void before() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 1; i <= 5; i++) {
+                em.persist(new Member("member" + i, i * 10));
+            }
+        });
+    }
+
+    @AfterEach
+    void after() {
+        memberBulkRepository.delete(null, progress -> {
+        });
+    }
+
+    @Test
+    void updateByChunk() {
+        List<BulkProgress> progresses = new ArrayList<>();
+
+        BulkProgress result = memberBulkRepository.update(member.age.lt(40),
+            update -> update.set(member.age, member.age.add(1)), progresses::add);
+
+        assertThat(result.affectedRows()).isEqualTo(3);
+        assertThat(result.totalRows()).isEqualTo(3);
+        assertThat(progresses).extracting(BulkProgress::affectedRows).containsExactly(2L, 3L);
+
+        List<Integer> ages = transactionTemplate.execute(status -> em
+            .createQuery("select m.age from Member m order by m.id", Integer.class)
+            .getResultList());
+        assertThat(ages).containsExactly(11, 21, 31, 40, 50);
+    }
+
+    @Test
+    void deleteByChunk() {
+        BulkProgress result = memberBulkRepository.delete(member.age.goe(20), progress -> {
+        });
+
+        assertThat(result.affectedRows()).isEqualTo(4);
+        assertThat(result.chunks()).isEqualTo(3);
+    }
+
+    @Test
+    void notAllowedInTransaction() {
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(
+            status -> memberBulkRepository.delete(null, progress -> {
+            })))
+            .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -2,7 +2,9 @@ package study.querydsl.repository;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import jakarta.persistence.EntityManager;
 
@@ -13,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import study.querydsl.dto.MemberSearchCond;
 import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemberTeamRecord;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.Team;
 
@@ -41,6 +44,21 @@ class MemberJpaRepositoryTest {
         assertThat(result2).containsExactly(member);
     }
 
+    @Test
+    void saveAllTest() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            members.add(new Member("member" + i, i, teamA));
+        }
+        memberJpaRepository.saveAll(members);
+
+        assertThat(members).allMatch(m -> m.getId() != null);
+        assertThat(memberJpaRepository.findAll()).hasSize(250);
+    }
+
     @Test
     void basicQuerydslTest() {
         Member member = new Member("member1", 10);
@@ -108,4 +126,56 @@ class MemberJpaRepositoryTest {
             .extracting("username")
             .containsExactly("member3", "member4");
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchTest_records() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+
+        MemberSearchCond condition = new MemberSearchCond();
+        condition.setTeamName("teamB");
+        condition.setAgeGoe(25);
+
+        List<MemberTeamRecord> records = memberJpaRepository.searchRecords(condition);
+        List<MemberTeamDto> dtos = memberJpaRepository.search(condition);
+
+        assertThat(records).extracting(MemberTeamRecord::username)
+            .containsExactly("member3", "member4");
+        assertThat(records).extracting(MemberTeamRecord::memberId, MemberTeamRecord::teamName)
+            .containsExactlyElementsOf(dtos.stream()
+                .map(dto -> tuple(dto.getMemberId(), dto.getTeamName()))
+                .toList());
+    }
+
+    @Test
+    void searchStreamTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCond condition = new MemberSearchCond();
+        condition.setTeamName("teamB");
+
+        try (Stream<MemberTeamDto> stream = memberJpaRepository.searchStream(condition, 1)) {
+            assertThat(stream.map(MemberTeamDto::getUsername))
+                .containsExactly("member3", "member4");
+        }
+    }
+}
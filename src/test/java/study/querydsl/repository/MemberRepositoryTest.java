@@ -3,21 +3,32 @@ package study.querydsl.repository;
 import static org.assertj.core.api.Assertions.*;
 import static study.querydsl.entity.QMember.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import jakarta.persistence.EntityManager;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import study.querydsl.dto.MemberCursor;
 import study.querydsl.dto.MemberSearchCond;
+import study.querydsl.dto.MemberSortKey;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.Team;
+import study.querydsl.repository.support.CursorPage;
+import study.querydsl.repository.support.EstimatedPage;
 
 @Transactional
 @SpringBootTest
@@ -30,6 +41,10 @@ class MemberRepositoryTest {
     private MemberRepository memberRepository;
     @Autowired
     private MemberTestRepository memberTestRepository;
+    @Autowired
+    private MemberSearchQueries memberSearchQueries;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     @Test
     void basicTest() {
@@ -144,6 +159,61 @@ class MemberRepositoryTest {
             .containsExactly("member1", "member2", "member3");
     }
 
+    @Test
+    void searchTest_slice() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 1; i <= 4; i++) {
+            em.persist(new Member("member" + i, i * 10, teamA));
+        }
+
+        MemberSearchCond condition = new MemberSearchCond();
+
+        Slice<MemberTeamDto> first = memberRepository.searchSlice(condition, PageRequest.of(0, 3));
+        Slice<MemberTeamDto> last = memberRepository.searchSlice(condition, PageRequest.of(1, 3));
+
+        assertThat(first.getContent()).extracting("username").containsExactly("member1", "member2", "member3");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getContent()).extracting("username").containsExactly("member4");
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    void searchTest_estimated() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 1; i <= 4; i++) {
+            em.persist(new Member("member" + i, i * 10, teamA));
+        }
+
+        MemberSearchCond condition = new MemberSearchCond();
+        condition.setAgeGoe(20);
+
+        EstimatedPage<MemberTeamDto> result = memberRepository.searchPageEstimated(condition, PageRequest.of(0, 2));
+
+        assertThat(result.getContent()).extracting("username").containsExactly("member2", "member3");
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        assertThat(result.getTotalType()).isEqualTo(EstimatedPage.TotalType.EXACT);
+    }
+
+    @Test
+    void countUpTo() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (int i = 1; i <= 4; i++) {
+            em.persist(new Member("member" + i, i * 10, i <= 3 ? teamA : teamB));
+        }
+
+        MemberSearchCond condition = new MemberSearchCond();
+        condition.setTeamName("teamA");
+
+        assertThat(memberSearchQueries.countUpTo(condition, 2)).isEqualTo(2);
+        assertThat(memberSearchQueries.countUpTo(condition, 10)).isEqualTo(3);
+        assertThat(memberSearchQueries.countUpTo(new MemberSearchCond(), 10)).isEqualTo(4);
+    }
+
     @Test
     void searchTest_custom() {
         Team teamA = new Team("teamA");
@@ -183,6 +253,117 @@ class MemberRepositoryTest {
             .containsExactly("member1", "member2", "member3");
     }
 
+    @Test
+    void searchTest_readOnly_joinsReadWriteTransaction() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+
+        // 호출자의 읽기-쓰기 트랜잭션에서는 flush 되지 않은 회원도 조회하고 변경 감지도 유지한다
+        Page<Member> result = memberTestRepository.searchPageByApplyPage(new MemberSearchCond(), PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).extracting(Member::getUsername).contains("member1", "member2");
+        Member found = result.getContent().get(0);
+        assertThat(em.unwrap(Session.class).isReadOnly(found)).isFalse();
+
+        found.setUsername("changed");
+        em.flush();
+        em.clear();
+        assertThat(em.find(Member.class, found.getId()).getUsername()).isEqualTo("changed");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void searchTest_readOnly() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        readWrite.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            em.persist(new Member("member1", 10, teamA));
+        });
+
+        try {
+            Member found = readOnly.execute(status -> {
+                Page<Member> result = memberTestRepository.searchPageByApplyPage(new MemberSearchCond(),
+                    PageRequest.of(0, 10));
+                Member member = result.getContent().get(0);
+                assertThat(em.unwrap(Session.class).isReadOnly(member)).isTrue();
+
+                // 스냅샷이 없으므로 변경해도 update 되지 않는다
+                member.setUsername("changed");
+                return member;
+            });
+
+            String username = readWrite.execute(status -> em.find(Member.class, found.getId()).getUsername());
+            assertThat(username).isEqualTo("member1");
+        } finally {
+            readWrite.executeWithoutResult(status -> {
+                em.createQuery("delete from Member").executeUpdate();
+                em.createQuery("delete from Team").executeUpdate();
+            });
+        }
+    }
+
+    @Test
+    void searchTest_cursor() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 20, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCond condition = new MemberSearchCond();
+        condition.setAgeGoe(15);
+
+        MemberCursor first = MemberCursor.first(MemberSortKey.AGE, Sort.Direction.DESC);
+        CursorPage<MemberTeamDto> page1 = memberRepository.searchByCursor(condition, first, 2);
+
+        assertThat(page1.getContent())
+            .extracting("username")
+            .containsExactly("member4", "member3");
+        assertThat(page1.isHasNext()).isTrue();
+
+        MemberCursor next = MemberCursor.decode(page1.getNextCursor());
+        CursorPage<MemberTeamDto> page2 = memberRepository.searchByCursor(condition, next, 2);
+
+        assertThat(page2.getContent())
+            .extracting("username")
+            .containsExactly("member2");
+        assertThat(page2.isHasNext()).isFalse();
+        assertThat(page2.getNextCursor()).isNull();
+    }
+
+    @Test
+    void searchTest_cursor_nullUsername() {
+        em.persist(new Member("memberB", 10));
+        em.persist(new Member(null, 20));
+        em.persist(new Member("memberA", 30));
+        em.persist(new Member(null, 40));
+
+        List<Integer> ages = new ArrayList<>();
+        MemberCursor cursor = MemberCursor.first(MemberSortKey.USERNAME, Sort.Direction.ASC);
+        while (cursor != null) {
+            CursorPage<MemberTeamDto> page = memberRepository.searchByCursor(new MemberSearchCond(), cursor, 1);
+            page.getContent().forEach(dto -> ages.add(dto.getAge()));
+            cursor = page.isHasNext() ? MemberCursor.decode(page.getNextCursor()) : null;
+        }
+
+        // username 이 null 인 회원은 member_id 순으로 마지막에 온다
+        assertThat(ages).containsExactly(30, 10, 20, 40);
+    }
+
     @Test
     void querydslPredicateExecutorTest() {
         Team teamA = new Team("teamA");
@@ -0,0 +1,69 @@
+package study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.*;
+import static study.querydsl.entity.QMember.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+/**
+ * StatelessSession 은 테스트 트랜잭션과 별도의 커넥션을 사용하므로 트랜잭션 없이 실행하고 데이터를 직접 정리한다.
+ */
+@SpringBootTest
+class MemberStatelessRepositoryTest {
+
+    @Autowired
+    private EntityManager em;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MemberStatelessRepository memberStatelessRepository;
+
+    @AfterEach
+    void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    void insertAllAndWalkWithTeam() {
+        Team teamA = new Team("teamA");
+        transactionTemplate.executeWithoutResult(status -> em.persist(teamA));
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            members.add(new Member("member" + i, i * 10, teamA));
+        }
+        assertThat(memberStatelessRepository.insertAll(members)).isEqualTo(5);
+
+        List<Member> walked = new ArrayList<>();
+        long count = memberStatelessRepository.forEachWithTeam(member.age.goe(20), walked::add);
+
+        assertThat(count).isEqualTo(4);
+        assertThat(walked).extracting(Member::getUsername)
+            .containsExactly("member2", "member3", "member4", "member5");
+        // fetch join 으로 함께 조회했으므로 세션이 닫힌 뒤에도 팀을 읽을 수 있다
+        assertThat(walked).extracting(m -> m.getTeam().getName()).containsOnly("teamA");
+    }
+
+    @Test
+    void insertNotAllowedInTransaction() {
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(
+            status -> memberStatelessRepository.insertAll(List.of(new Member("member1", 10)))))
+            .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,34 @@
+package study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional
+@SpringBootTest
+class TeamRepositoryTest {
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Test
+    void findByNameUsesQueryCache() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        long hits = statistics.getQueryCacheHitCount();
+
+        teamRepository.findByName("teamQueryCache");
+        teamRepository.findByName("teamQueryCache");
+
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(hits + 1);
+    }
+}
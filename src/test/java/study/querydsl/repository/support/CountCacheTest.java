@@ -0,0 +1,65 @@
+package study.querydsl.repository.support;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import study.querydsl.dto.MemberSearchCond;
+
+class CountCacheTest {
+
+    @Test
+    void cachedByNormalizedCondition() {
+        CountCache countCache = new CountCache(Duration.ofMinutes(1), 100);
+        AtomicInteger queries = new AtomicInteger();
+
+        MemberSearchCond blank = new MemberSearchCond();
+        blank.setUsername(" ");
+        MemberSearchCond empty = new MemberSearchCond();
+
+        long first = countCache.get(blank.normalize(), () -> queries.incrementAndGet() * 10L);
+        long second = countCache.get(empty.normalize(), () -> queries.incrementAndGet() * 10L);
+
+        assertThat(first).isEqualTo(10);
+        assertThat(second).isEqualTo(10);
+        assertThat(queries).hasValue(1);
+    }
+
+    @Test
+    void invalidateAll() {
+        CountCache countCache = new CountCache(Duration.ofMinutes(1), 100);
+        AtomicInteger queries = new AtomicInteger();
+        MemberSearchCond condition = new MemberSearchCond();
+
+        countCache.get(condition.normalize(), queries::incrementAndGet);
+        countCache.invalidateAll();
+        long count = countCache.get(condition.normalize(), queries::incrementAndGet);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(queries).hasValue(2);
+    }
+
+    @Test
+    void bypassedInReadWriteTransaction() {
+        CountCache countCache = new CountCache(Duration.ofMinutes(1), 100);
+        AtomicInteger queries = new AtomicInteger();
+        MemberSearchCond condition = new MemberSearchCond();
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            countCache.get(condition.normalize(), queries::incrementAndGet);
+            countCache.get(condition.normalize(), queries::incrementAndGet);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        long count = countCache.get(condition.normalize(), queries::incrementAndGet);
+
+        // 트랜잭션 안에서 센 값은 캐시에 남지 않는다
+        assertThat(count).isEqualTo(3);
+        assertThat(queries).hasValue(3);
+    }
+}
@@ -0,0 +1,115 @@
+package study.querydsl.repository.support;
+
+import static org.assertj.core.api.Assertions.*;
+import static study.querydsl.entity.QMember.*;
+import static study.querydsl.entity.QTeam.*;
+
+import jakarta.persistence.EntityManager;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+@Transactional
+@SpringBootTest
+class CountQueriesTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Test
+    void unreferencedToOneJoinIsPruned() {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20));
+
+        JPAQuery<Long> query = CountQueries.optimize(em, queryFactory
+            .select(member.count())
+            .from(member)
+            .leftJoin(member.team, team).fetchJoin()
+            .where(member.age.goe(10))
+            .orderBy(member.username.desc())
+            .offset(10)
+            .limit(5));
+
+        assertThat(query.toString()).doesNotContain("join", "order by");
+        assertThat(query.fetchOne()).isEqualTo(2);
+    }
+
+    @Test
+    void referencedJoinIsKept() {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20));
+
+        JPAQuery<Long> query = CountQueries.optimize(em, queryFactory
+            .select(member.count())
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(team.name.eq("teamA")));
+
+        assertThat(query.toString()).contains("left join member.team as team");
+        assertThat(query.fetchOne()).isEqualTo(1);
+    }
+
+    @Test
+    void deriveFromCollectionFetchJoin() {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+
+        JPAQuery<Team> content = queryFactory
+            .selectFrom(team)
+            .leftJoin(team.members, member).fetchJoin();
+
+        assertThat(CountQueries.derive(em, content).getAsLong()).isEqualTo(2);
+    }
+
+    @Test
+    void deriveFromGroupBy() {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+        em.persist(new Member("member1", 10));
+        em.persist(new Member("member2", 10));
+        em.persist(new Member("member3", 20));
+
+        JPAQuery<Integer> content = queryFactory
+            .select(member.age)
+            .from(member)
+            .groupBy(member.age);
+
+        assertThat(CountQueries.derive(em, content).getAsLong()).isEqualTo(2);
+    }
+
+    @Test
+    void deriveFromMultiColumnDistinct() {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+        em.persist(new Member("member1", 10));
+        em.persist(new Member("member1", 10));
+        em.persist(new Member("member1", 20));
+        em.persist(new Member("member2", 20));
+
+        JPAQuery<Tuple> content = queryFactory
+            .select(member.username, member.age)
+            .distinct()
+            .from(member)
+            .where(member.age.goe(10));
+
+        assertThat(CountQueries.derive(em, content).getAsLong()).isEqualTo(3);
+    }
+}
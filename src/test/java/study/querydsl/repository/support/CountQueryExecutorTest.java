@@ -0,0 +1,65 @@
+package study.querydsl.repository.support;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class CountQueryExecutorTest {
+
+    private final PlatformTransactionManager transactionManager = new PlatformTransactionManager() {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    };
+
+    @Test
+    void countRunsOnWorkerThread() {
+        AtomicReference<String> countThread = new AtomicReference<>();
+
+        try (CountQueryExecutor executor = new CountQueryExecutor(true, transactionManager, 2, 4,
+            Duration.ofSeconds(1))) {
+            Page<Integer> page = executor.getPage(() -> List.of(1, 2), PageRequest.of(0, 2), () -> {
+                countThread.set(Thread.currentThread().getName());
+                return 10;
+            });
+
+            assertThat(page.getTotalElements()).isEqualTo(10);
+            assertThat(countThread.get()).startsWith("count-query-");
+        }
+    }
+
+    @Test
+    void sequentialWhenDisabled() {
+        AtomicReference<String> countThread = new AtomicReference<>();
+
+        try (CountQueryExecutor executor = new CountQueryExecutor(false, transactionManager, 2, 4,
+            Duration.ofSeconds(1))) {
+            Page<Integer> page = executor.getPage(() -> List.of(1, 2), PageRequest.of(0, 2), () -> {
+                countThread.set(Thread.currentThread().getName());
+                return 10;
+            });
+
+            assertThat(page.getTotalElements()).isEqualTo(10);
+            assertThat(countThread.get()).isEqualTo(Thread.currentThread().getName());
+        }
+    }
+}
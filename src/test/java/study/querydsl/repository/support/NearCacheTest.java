@@ -0,0 +1,37 @@
+package study.querydsl.repository.support;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class NearCacheTest {
+
+    @Test
+    void readThrough() {
+        NearCache<Long, String> cache = new NearCache<>("test", Duration.ofMinutes(1), 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> Optional.of("member" + loads.incrementAndGet()));
+        Optional<String> cached = cache.get(1L, id -> Optional.of("member" + loads.incrementAndGet()));
+
+        assertThat(cached).hasValue("member1");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void invalidatedDuringLoadIsNotCached() {
+        NearCache<Long, String> cache = new NearCache<>("test", Duration.ofMinutes(1), 100);
+
+        cache.get(1L, id -> {
+            cache.invalidate(id);
+            return Optional.of("stale");
+        });
+        Optional<String> reloaded = cache.get(1L, id -> Optional.of("fresh"));
+
+        assertThat(reloaded).hasValue("fresh");
+    }
+}
@@ -0,0 +1,59 @@
+package study.querydsl.repository.support;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentCallsShareOneExecution() throws Exception {
+        SingleFlight singleFlight = new SingleFlight("test");
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<String> first = executor.submit(() -> singleFlight.execute("key", () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                awaitQuietly(release);
+                return "result";
+            }));
+            started.await(1, TimeUnit.SECONDS);
+
+            Future<String> second = executor.submit(() -> singleFlight.execute("key", () -> {
+                executions.incrementAndGet();
+                return "other";
+            }));
+            long deadline = System.currentTimeMillis() + 1000;
+            while (singleFlight.getCoalesced() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertThat(first.get(1, TimeUnit.SECONDS)).isEqualTo("result");
+            assertThat(second.get(1, TimeUnit.SECONDS)).isEqualTo("result");
+            assertThat(executions).hasValue(1);
+            assertThat(singleFlight.getCoalesced()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
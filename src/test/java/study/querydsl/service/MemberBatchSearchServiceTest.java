@@ -0,0 +1,112 @@
+package study.querydsl.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.persistence.EntityManager;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import study.querydsl.dto.MemberSearchCond;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+@Transactional
+@SpringBootTest
+class MemberBatchSearchServiceTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MemberBatchSearchService memberBatchSearchService;
+
+    @Test
+    void usernameConditionsAreMerged() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+
+        Map<Integer, List<MemberTeamDto>> result = memberBatchSearchService.search(List.of(
+            usernameCond("member2"),
+            usernameCond("member1"),
+            usernameCond("member2"),
+            usernameCond("none")));
+
+        assertThat(result).containsOnlyKeys(0, 1, 2, 3);
+        assertThat(result.get(0)).extracting("username").containsExactly("member2");
+        assertThat(result.get(1)).extracting("username").containsExactly("member1");
+        assertThat(result.get(2)).extracting("username").containsExactly("member2");
+        assertThat(result.get(3)).isEmpty();
+    }
+
+    /**
+     * 개별 조건은 풀의 다른 스레드에서 실행되므로 커밋된 데이터로 확인한다.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void mixedConditionsKeepRequestIndex() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            em.persist(new Member("member1", 10, teamA));
+            em.persist(new Member("member2", 20, teamA));
+            em.persist(new Member("member3", 30, teamB));
+        });
+
+        try {
+            MemberSearchCond teamNameB = new MemberSearchCond();
+            teamNameB.setTeamName("teamB");
+            MemberSearchCond ageGoe15 = new MemberSearchCond();
+            ageGoe15.setAgeGoe(15);
+
+            Map<Integer, List<MemberTeamDto>> result = memberBatchSearchService.search(List.of(
+                teamNameB,
+                usernameCond("member1"),
+                ageGoe15,
+                usernameCond("member3")));
+
+            assertThat(result).containsOnlyKeys(0, 1, 2, 3);
+            assertThat(result.get(0)).extracting("username").containsExactly("member3");
+            assertThat(result.get(1)).extracting("username").containsExactly("member1");
+            assertThat(result.get(2)).extracting("username").containsExactlyInAnyOrder("member2", "member3");
+            assertThat(result.get(3)).extracting("username").containsExactly("member3");
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> {
+                em.createQuery("delete from Member").executeUpdate();
+                em.createQuery("delete from Team").executeUpdate();
+            });
+        }
+    }
+
+    @Test
+    void nullConditionIsRejected() {
+        List<MemberSearchCond> conditions = new ArrayList<>();
+        conditions.add(usernameCond("member1"));
+        conditions.add(null);
+
+        assertThatThrownBy(() -> memberBatchSearchService.search(conditions))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static MemberSearchCond usernameCond(String username) {
+        MemberSearchCond condition = new MemberSearchCond();
+        condition.setUsername(username);
+        return condition;
+    }
+}